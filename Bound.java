@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2019 Sebastian Gössl
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+
+
+package tree;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+
+
+/**
+ * Upper bound on the cost of the best solution found so far, shared by the
+ * threads of a branch and bound search.
+ * The bound only ever decreases. A search grown with
+ * {@link Tree#growPruned(Object, java.util.function.Function,
+ * java.util.function.Predicate)} can prune every node whose lower bound on
+ * the cost is not below it and tighten it whenever it finds a better
+ * solution. To maximize a value, bound its negation.
+ * 
+ * @author Sebastian Gössl
+ * @version 1.0 17.10.2026
+ */
+public final class Bound {
+    
+    /**
+     * Bits of the current bound.
+     */
+    private final AtomicLong bits;
+    
+    
+    
+    /**
+     * Constructs a new bound that admits every finite cost.
+     */
+    public Bound() {
+        this(Double.POSITIVE_INFINITY);
+    }
+    
+    /**
+     * Constructs a new bound with the given initial value.
+     * 
+     * @param initial initial value of the bound
+     */
+    public Bound(double initial) {
+        if(Double.isNaN(initial)) {
+            throw new IllegalArgumentException("Illegal bound: " + initial);
+        }
+        
+        bits = new AtomicLong(Double.doubleToLongBits(initial));
+    }
+    
+    
+    
+    /**
+     * Returns the current value of the bound.
+     * 
+     * @return current value of the bound
+     */
+    public double get() {
+        return Double.longBitsToDouble(bits.get());
+    }
+    
+    /**
+     * Returns if the given cost is below the bound and can therefore still
+     * lead to a better solution.
+     * 
+     * @param cost lower bound on the cost
+     * @return if the cost is below the bound
+     */
+    public boolean admits(double cost) {
+        return cost < get();
+    }
+    
+    /**
+     * Lowers the bound to the given cost if it is below the bound.
+     * 
+     * @param cost cost of a found solution
+     * @return if the bound has been lowered
+     */
+    public boolean tighten(double cost) {
+        long current = bits.get();
+        while(cost < Double.longBitsToDouble(current)) {
+            if(bits.compareAndSet(current, Double.doubleToLongBits(cost))) {
+                return true;
+            }
+            current = bits.get();
+        }
+        
+        return false;
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "Bound[" + get() + "]";
+    }
+}
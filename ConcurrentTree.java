@@ -0,0 +1,474 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2019 Sebastian Gössl
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+
+
+package tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.swing.tree.TreeNode;
+
+
+
+/**
+ * Thread-safe variant of a {@link Tree}.
+ * Every node guards its own children with its own lock, so threads adding
+ * or removing children of different nodes never contend and writers scale
+ * with the number of nodes they work on.
+ * Readers get snapshots of the children of a node and the traversals walk
+ * these snapshots, so they never fail because of concurrent modifications
+ * and see every node either with or without a concurrently added or
+ * removed child, but the traversed tree as a whole need not be a snapshot.
+ * Because no lock covers more than one node, sizes and heights are not
+ * maintained.
+ * 
+ * @author Sebastian Gössl
+ * @version 1.0 17.10.2026
+ * @param <T> data type the tree stores
+ */
+public class ConcurrentTree<T>
+        implements TreeNode, Iterable<ConcurrentTree<T>> {
+    
+    /**
+     * Data of this node.
+     */
+    private final T data;
+    /**
+     * Parent of this node or null if this is a root node.
+     */
+    private final ConcurrentTree<T> parent;
+    /**
+     * Children of this node.
+     * The list is also the lock of this node and is only accessed while
+     * holding it.
+     */
+    private final List<ConcurrentTree<T>> children = new ArrayList<>();
+    /**
+     * Number of edges between this node and its root node.
+     */
+    private final int depth;
+    
+    
+    
+    /**
+     * Constructs a new root node with the given data.
+     * 
+     * @param data data of this node
+     */
+    public ConcurrentTree(T data) {
+        this(null, data);
+    }
+    
+    /**
+     * Constructs a new root node and grows a sub tree with the given function.
+     * The function is applied on every node recursively and every returned
+     * data object of the iterable is added as a new child node.
+     * 
+     * @param data data of the this node
+     * @param grow growth function
+     */
+    public ConcurrentTree(T data, Function<T, Iterable<T>> grow) {
+        this(null, data, grow);
+    }
+    
+    /**
+     * Constructs a new node with the given parent node and data.
+     * 
+     * @param parent parent node of this node
+     * @param data data of this node
+     */
+    private ConcurrentTree(ConcurrentTree<T> parent, T data) {
+        this.parent = parent;
+        this.data = data;
+        this.depth = (parent != null) ? parent.depth + 1 : 0;
+    }
+    
+    /**
+     * Constructs a new node with the given parent node and grows a sub
+     * tree with the given function.
+     * The node is not visible to other threads while it is grown, so the
+     * growth function is not called while holding any lock.
+     * 
+     * @param parent parent node of this node
+     * @param data data of the this node
+     * @param grow growth function
+     */
+    private ConcurrentTree(ConcurrentTree<T> parent, T data,
+            Function<T, Iterable<T>> grow) {
+        this(parent, data);
+        for(T child : grow.apply(data)) {
+            children.add(new ConcurrentTree<>(this, child, grow));
+        }
+    }
+    
+    
+    
+    /**
+     * Returns the data of this node.
+     * 
+     * @return data of this node
+     */
+    public T getData() {
+        return data;
+    }
+    
+    /**
+     * Returns the parent of this node or null if this is a root node.
+     * 
+     * @return parent of this node or null if this is a root node
+     */
+    @Override
+    public ConcurrentTree<T> getParent() {
+        return parent;
+    }
+    
+    /**
+     * Returns a snapshot of the children of this node.
+     * Later changes are not reflected in the returned list.
+     * 
+     * @return snapshot of the children of this node
+     */
+    public List<ConcurrentTree<T>> getChildren() {
+        synchronized(children) {
+            return new ArrayList<>(children);
+        }
+    }
+    
+    /**
+     * Returns if this is a root node.
+     * 
+     * @return if this is a root node
+     */
+    public boolean isRoot() {
+        return getParent() == null;
+    }
+    
+    /**
+     * Returns if this is a leaf node (which means that this node has no
+     * children).
+     * 
+     * @return if this is a leaf node
+     */
+    @Override
+    public boolean isLeaf() {
+        return getChildCount() == 0;
+    }
+    
+    /**
+     * Returns the depth of this node, which is the number of edges between
+     * this node and its root node.
+     * 
+     * @return depth of this node
+     */
+    public int depth() {
+        return depth;
+    }
+    
+    
+    
+    /**
+     * Adds a new child node with the given data.
+     * 
+     * @param child data of the child to be added
+     * @return the newly added child node
+     */
+    public ConcurrentTree<T> add(T child) {
+        return attach(new ConcurrentTree<>(this, child));
+    }
+    
+    /**
+     * Adds a new child node with the given data and grows a sub tree from
+     * this child with the given function.
+     * The sub tree is grown before it is added, so no lock is held while
+     * the growth function is called.
+     * 
+     * @param child data of the child to be added
+     * @param grow growth function
+     * @return the newly added child node
+     */
+    public ConcurrentTree<T> add(T child, Function<T, Iterable<T>> grow) {
+        return attach(new ConcurrentTree<>(this, child, grow));
+    }
+    
+    /**
+     * Removes the child with at given index.
+     * 
+     * @param index index of the child to be removed
+     * @return removed child node
+     */
+    public ConcurrentTree<T> remove(int index) {
+        synchronized(children) {
+            return children.remove(index);
+        }
+    }
+    
+    /**
+     * Removes the first child that holds the given data and returns the
+     * whole node.
+     * 
+     * @param child data of the child to be removed
+     * @return removed child node or null if no child holds the given data
+     */
+    public ConcurrentTree<T> remove(T child) {
+        synchronized(children) {
+            final int index = find(child);
+            return (index >= 0) ? children.remove(index) : null;
+        }
+    }
+    
+    /**
+     * Returns the first child that holds the given data.
+     * 
+     * @param child data of the child to be found
+     * @return first child that holds the given data or null if there is none
+     */
+    public ConcurrentTree<T> getChild(T child) {
+        synchronized(children) {
+            final int index = find(child);
+            return (index >= 0) ? children.get(index) : null;
+        }
+    }
+    
+    /**
+     * Returns if a child holds the given data.
+     * 
+     * @param child data to be searched for
+     * @return if a child holds the given data
+     */
+    public boolean containsChild(T child) {
+        return getChild(child) != null;
+    }
+    
+    /**
+     * Returns the index of the first child that holds the given data.
+     * The caller must hold the lock of this node.
+     * 
+     * @param child data of the child to be found
+     * @return index of the first child that holds the given data or -1 if
+     * there is none
+     */
+    private int find(T child) {
+        for(int i=0; i<children.size(); i++) {
+            if(Objects.equals(child, children.get(i).getData())) {
+                return i;
+            }
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Appends the given node to the children of this node.
+     * 
+     * @param node new child of this node
+     * @return the given node
+     */
+    private ConcurrentTree<T> attach(ConcurrentTree<T> node) {
+        synchronized(children) {
+            children.add(node);
+        }
+        return node;
+    }
+    
+    
+    
+    /**
+     * Performs the given action for each node in this tree in pre-order.
+     * It is first performed for this node and then for its children
+     * recursively and therefore for the whole tree.
+     * The children of every node are taken as a snapshot when the node is
+     * entered and the action is called without holding any lock.
+     * 
+     * @param action to be performed for every node in pre-order
+     */
+    public void preOrder(Consumer<? super ConcurrentTree<T>> action) {
+        forEach(action);
+    }
+    
+    /**
+     * Performs the given action for each node in this tree in post-order.
+     * It is first performed for its children recursively and then for this
+     * node and therefore for the whole tree.
+     * The children of every node are taken as a snapshot when the node is
+     * entered and the action is called without holding any lock.
+     * 
+     * @param action to be performed for every node in post-order
+     */
+    public void postOrder(Consumer<? super ConcurrentTree<T>> action) {
+        final Deque<ConcurrentTree<T>> nodes = new ArrayDeque<>();
+        final Deque<Iterator<ConcurrentTree<T>>> snapshots =
+                new ArrayDeque<>();
+        
+        nodes.push(this);
+        snapshots.push(getChildren().iterator());
+        while(!nodes.isEmpty()) {
+            final Iterator<ConcurrentTree<T>> snapshot = snapshots.peek();
+            if(snapshot.hasNext()) {
+                final ConcurrentTree<T> child = snapshot.next();
+                nodes.push(child);
+                snapshots.push(child.getChildren().iterator());
+            } else {  //All children visited
+                snapshots.pop();
+                action.accept(nodes.pop());
+            }
+        }
+    }
+    
+    /**
+     * Returns an iterator over this tree in pre-order.
+     * The children of every node are taken as a snapshot when the iterator
+     * reaches the node, so the iterator never fails because of concurrent
+     * modifications.
+     * 
+     * @return iterator over this tree in pre-order
+     */
+    @Override
+    public Iterator<ConcurrentTree<T>> iterator() {
+        return new SnapshotIterator();
+    }
+    
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ConcurrentTree<T> getChildAt(int childIndex) {
+        synchronized(children) {
+            return children.get(childIndex);
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getChildCount() {
+        synchronized(children) {
+            return children.size();
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getIndex(TreeNode node) {
+        if(node instanceof ConcurrentTree && node.getParent() == this) {
+            synchronized(children) {
+                return children.indexOf(node);
+            }
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean getAllowsChildren() {
+        return true;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Enumeration<ConcurrentTree<T>> children() {
+        return Collections.enumeration(getChildren());
+    }
+    
+    
+    
+    /**
+     * Iterator that iterates over this tree in pre-order.
+     * It keeps a stack of iterators over the snapshots of the children of
+     * the nodes on the current path.
+     */
+    private class SnapshotIterator implements Iterator<ConcurrentTree<T>> {
+        /**
+         * Snapshots of the children of the nodes on the current path.
+         */
+        private final Deque<Iterator<ConcurrentTree<T>>> snapshots =
+                new ArrayDeque<>();
+        /**
+         * Node to be returned next or null if the traversal is finished.
+         */
+        private ConcurrentTree<T> next = ConcurrentTree.this;
+        
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public ConcurrentTree<T> next() {
+            if(next == null) {
+                throw new NoSuchElementException();
+            }
+            
+            final ConcurrentTree<T> node = next;
+            snapshots.push(node.getChildren().iterator());
+            next = advance();
+            return node;
+        }
+        
+        /**
+         * Finds the next node in pre-order, which is the next unvisited child
+         * of the deepest node on the path that still has one.
+         * 
+         * @return next node or null if the traversal is finished
+         */
+        private ConcurrentTree<T> advance() {
+            while(!snapshots.isEmpty()) {
+                final Iterator<ConcurrentTree<T>> snapshot = snapshots.peek();
+                if(snapshot.hasNext()) {
+                    return snapshot.next();
+                }
+                snapshots.pop();  //Subtree finished
+            }
+            
+            return null;
+        }
+    }
+}
@@ -0,0 +1,633 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2019 Sebastian Gössl
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+
+
+package tree;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.swing.tree.TreeNode;
+
+
+
+/**
+ * Thread-safe variant of a {@link Tree} for trees that are read far more
+ * often than they are modified.
+ * The children of every node are kept in an immutable array that is
+ * replaced by a copy on every modification. The new array is swapped in
+ * with a compare and set, so writers never block and readers take no locks
+ * at all: reading the children of a node is a single volatile read and the
+ * traversals walk the arrays they have read.
+ * Every modification copies the children of the modified node, which makes
+ * this unsuitable for nodes that get many children one by one.
+ * 
+ * @author Sebastian Gössl
+ * @version 1.0 17.10.2026
+ * @param <T> data type the tree stores
+ * @see ConcurrentTree
+ */
+public class CopyOnWriteTree<T>
+        implements TreeNode, Iterable<CopyOnWriteTree<T>> {
+    
+    /**
+     * Children of a leaf node, shared by all nodes.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final CopyOnWriteTree[] NO_CHILDREN =
+            new CopyOnWriteTree[0];
+    /**
+     * Updater that swaps the children arrays.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<CopyOnWriteTree,
+            CopyOnWriteTree[]> CHILDREN = AtomicReferenceFieldUpdater
+                    .newUpdater(CopyOnWriteTree.class,
+                            CopyOnWriteTree[].class, "children");
+    
+    
+    /**
+     * Data of this node.
+     */
+    private final T data;
+    /**
+     * Parent of this node or null if this is a root node.
+     */
+    private final CopyOnWriteTree<T> parent;
+    /**
+     * Children of this node.
+     * The array is never modified, it is replaced as a whole.
+     */
+    @SuppressWarnings("unchecked")
+    private volatile CopyOnWriteTree<T>[] children = NO_CHILDREN;
+    /**
+     * Number of edges between this node and its root node.
+     */
+    private final int depth;
+    
+    
+    
+    /**
+     * Constructs a new root node with the given data.
+     * 
+     * @param data data of this node
+     */
+    public CopyOnWriteTree(T data) {
+        this(null, data);
+    }
+    
+    /**
+     * Constructs a new root node and grows a sub tree with the given function.
+     * The function is applied on every node recursively and every returned
+     * data object of the iterable is added as a new child node.
+     * 
+     * @param data data of the this node
+     * @param grow growth function
+     */
+    public CopyOnWriteTree(T data, Function<T, Iterable<T>> grow) {
+        this(null, data, grow);
+    }
+    
+    /**
+     * Constructs a new node with the given parent node and data.
+     * 
+     * @param parent parent node of this node
+     * @param data data of this node
+     */
+    private CopyOnWriteTree(CopyOnWriteTree<T> parent, T data) {
+        this.parent = parent;
+        this.data = data;
+        this.depth = (parent != null) ? parent.depth + 1 : 0;
+    }
+    
+    /**
+     * Constructs a new node with the given parent node and grows a sub
+     * tree with the given function.
+     * The node is not visible to other threads while it is grown, so its
+     * children array is built once instead of being copied for every child.
+     * 
+     * @param parent parent node of this node
+     * @param data data of the this node
+     * @param grow growth function
+     */
+    @SuppressWarnings("unchecked")
+    private CopyOnWriteTree(CopyOnWriteTree<T> parent, T data,
+            Function<T, Iterable<T>> grow) {
+        this(parent, data);
+        
+        CopyOnWriteTree<T>[] grown = NO_CHILDREN;
+        int count = 0;
+        for(T child : grow.apply(data)) {
+            if(count == grown.length) {
+                grown = Arrays.copyOf(grown, Math.max(4, 2*count));
+            }
+            grown[count++] = new CopyOnWriteTree<>(this, child, grow);
+        }
+        children = (count == grown.length)
+                ? grown : Arrays.copyOf(grown, count);
+    }
+    
+    
+    
+    /**
+     * Returns the data of this node.
+     * 
+     * @return data of this node
+     */
+    public T getData() {
+        return data;
+    }
+    
+    /**
+     * Returns the parent of this node or null if this is a root node.
+     * 
+     * @return parent of this node or null if this is a root node
+     */
+    @Override
+    public CopyOnWriteTree<T> getParent() {
+        return parent;
+    }
+    
+    /**
+     * Returns the children of this node.
+     * The returned list is an unmodifiable snapshot, later changes are not
+     * reflected in it.
+     * 
+     * @return snapshot of the children of this node
+     */
+    public List<CopyOnWriteTree<T>> getChildren() {
+        return Collections.unmodifiableList(Arrays.asList(children));
+    }
+    
+    /**
+     * Returns if this is a root node.
+     * 
+     * @return if this is a root node
+     */
+    public boolean isRoot() {
+        return getParent() == null;
+    }
+    
+    /**
+     * Returns if this is a leaf node (which means that this node has no
+     * children).
+     * 
+     * @return if this is a leaf node
+     */
+    @Override
+    public boolean isLeaf() {
+        return children.length == 0;
+    }
+    
+    /**
+     * Returns the depth of this node, which is the number of edges between
+     * this node and its root node.
+     * 
+     * @return depth of this node
+     */
+    public int depth() {
+        return depth;
+    }
+    
+    
+    
+    /**
+     * Adds a new child node with the given data.
+     * 
+     * @param child data of the child to be added
+     * @return the newly added child node
+     */
+    public CopyOnWriteTree<T> add(T child) {
+        return attach(new CopyOnWriteTree<>(this, child));
+    }
+    
+    /**
+     * Adds a new child node with the given data and grows a sub tree from
+     * this child with the given function.
+     * The sub tree is grown before it is added, so readers never see it
+     * partially grown.
+     * 
+     * @param child data of the child to be added
+     * @param grow growth function
+     * @return the newly added child node
+     */
+    public CopyOnWriteTree<T> add(T child, Function<T, Iterable<T>> grow) {
+        return attach(new CopyOnWriteTree<>(this, child, grow));
+    }
+    
+    /**
+     * Removes the child with at given index.
+     * 
+     * @param index index of the child to be removed
+     * @return removed child node
+     */
+    public CopyOnWriteTree<T> remove(int index) {
+        CopyOnWriteTree<T>[] current;
+        do {
+            current = children;
+            if(index < 0 || index >= current.length) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+        } while(!CHILDREN.compareAndSet(this, current,
+                without(current, index)));
+        
+        return current[index];
+    }
+    
+    /**
+     * Removes the first child that holds the given data and returns the
+     * whole node.
+     * 
+     * @param child data of the child to be removed
+     * @return removed child node or null if no child holds the given data
+     */
+    public CopyOnWriteTree<T> remove(T child) {
+        CopyOnWriteTree<T>[] current;
+        int index;
+        do {
+            current = children;
+            index = find(current, child);
+            if(index < 0) {
+                return null;
+            }
+        } while(!CHILDREN.compareAndSet(this, current,
+                without(current, index)));
+        
+        return current[index];
+    }
+    
+    /**
+     * Returns the first child that holds the given data.
+     * 
+     * @param child data of the child to be found
+     * @return first child that holds the given data or null if there is none
+     */
+    public CopyOnWriteTree<T> getChild(T child) {
+        final CopyOnWriteTree<T>[] current = children;
+        final int index = find(current, child);
+        return (index >= 0) ? current[index] : null;
+    }
+    
+    /**
+     * Returns if a child holds the given data.
+     * 
+     * @param child data to be searched for
+     * @return if a child holds the given data
+     */
+    public boolean containsChild(T child) {
+        return getChild(child) != null;
+    }
+    
+    /**
+     * Returns the index of the first of the given children that holds the
+     * given data.
+     * 
+     * @param children children to be searched
+     * @param child data of the child to be found
+     * @return index of the first child that holds the given data or -1 if
+     * there is none
+     */
+    private static <T> int find(CopyOnWriteTree<T>[] children, T child) {
+        for(int i=0; i<children.length; i++) {
+            if(Objects.equals(child, children[i].getData())) {
+                return i;
+            }
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Returns a copy of the given children without the child at the given
+     * index.
+     * 
+     * @param children children to be copied
+     * @param index index of the child to be left out
+     * @return copy of the children without the child
+     */
+    private static <T> CopyOnWriteTree<T>[] without(
+            CopyOnWriteTree<T>[] children, int index) {
+        final CopyOnWriteTree<T>[] copy =
+                Arrays.copyOf(children, children.length - 1);
+        System.arraycopy(children, index + 1, copy, index,
+                children.length - index - 1);
+        return copy;
+    }
+    
+    /**
+     * Appends the given node to the children of this node.
+     * 
+     * @param node new child of this node
+     * @return the given node
+     */
+    private CopyOnWriteTree<T> attach(CopyOnWriteTree<T> node) {
+        CopyOnWriteTree<T>[] current, copy;
+        do {
+            current = children;
+            copy = Arrays.copyOf(current, current.length + 1);
+            copy[current.length] = node;
+        } while(!CHILDREN.compareAndSet(this, current, copy));
+        
+        return node;
+    }
+    
+    
+    
+    /**
+     * Performs the given action for each node in this tree in pre-order.
+     * It is first performed for this node and then for its children
+     * recursively and therefore for the whole tree.
+     * The children of every node are read once when the node is entered.
+     * 
+     * @param action to be performed for every node in pre-order
+     */
+    public void preOrder(Consumer<? super CopyOnWriteTree<T>> action) {
+        final PathStack<T> stack = new PathStack<>();
+        
+        action.accept(this);
+        stack.push(this);
+        while(!stack.isEmpty()) {
+            final CopyOnWriteTree<T> child = stack.nextChild();
+            if(child != null) {
+                action.accept(child);
+                stack.push(child);
+            } else {  //All children visited
+                stack.pop();
+            }
+        }
+    }
+    
+    /**
+     * Performs the given action for each node in this tree in post-order.
+     * It is first performed for its children recursively and then for this
+     * node and therefore for the whole tree.
+     * The children of every node are read once when the node is entered.
+     * 
+     * @param action to be performed for every node in post-order
+     */
+    public void postOrder(Consumer<? super CopyOnWriteTree<T>> action) {
+        final PathStack<T> stack = new PathStack<>();
+        
+        stack.push(this);
+        while(!stack.isEmpty()) {
+            final CopyOnWriteTree<T> child = stack.nextChild();
+            if(child != null) {
+                stack.push(child);
+            } else {  //All children visited
+                action.accept(stack.pop());
+            }
+        }
+    }
+    
+    /**
+     * Returns an iterator over this tree in pre-order.
+     * The children of every node are read once when the iterator reaches
+     * the node, so the iterator never fails because of concurrent
+     * modifications.
+     * 
+     * @return iterator over this tree in pre-order
+     */
+    @Override
+    public Iterator<CopyOnWriteTree<T>> iterator() {
+        return new TreeIterator();
+    }
+    
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CopyOnWriteTree<T> getChildAt(int childIndex) {
+        return children[childIndex];
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getChildCount() {
+        return children.length;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getIndex(TreeNode node) {
+        if(node instanceof CopyOnWriteTree && node.getParent() == this) {
+            final CopyOnWriteTree<T>[] current = children;
+            for(int i=0; i<current.length; i++) {
+                if(current[i] == node) {
+                    return i;
+                }
+            }
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean getAllowsChildren() {
+        return true;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Enumeration<CopyOnWriteTree<T>> children() {
+        return Collections.enumeration(getChildren());
+    }
+    
+    
+    
+    /**
+     * Stack of the nodes on a path from a node down into its sub tree,
+     * together with the children arrays read when they were pushed and the
+     * index of the next child to be visited of every node.
+     * 
+     * @param <T> data type of the nodes
+     */
+    private static final class PathStack<T> {
+        /**
+         * Nodes on the path.
+         */
+        private CopyOnWriteTree<T>[] nodes;
+        /**
+         * Children arrays of the nodes on the path.
+         */
+        private CopyOnWriteTree<T>[][] children;
+        /**
+         * Index of the next child to be visited of every node on the path.
+         */
+        private int[] indices;
+        /**
+         * Number of nodes on the path.
+         */
+        private int size;
+        
+        
+        
+        /**
+         * Constructs a new empty stack.
+         */
+        @SuppressWarnings("unchecked")
+        public PathStack() {
+            nodes = new CopyOnWriteTree[16];
+            children = new CopyOnWriteTree[16][];
+            indices = new int[16];
+        }
+        
+        
+        
+        /**
+         * Returns if the stack is empty.
+         * 
+         * @return if the stack is empty
+         */
+        public boolean isEmpty() {
+            return size == 0;
+        }
+        
+        /**
+         * Pushes the given node onto the stack and reads its children.
+         * They will be visited starting with the first one.
+         * 
+         * @param node node to be pushed
+         */
+        public void push(CopyOnWriteTree<T> node) {
+            if(size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2*size);
+                children = Arrays.copyOf(children, 2*size);
+                indices = Arrays.copyOf(indices, 2*size);
+            }
+            nodes[size] = node;
+            children[size] = node.children;
+            indices[size] = 0;
+            size++;
+        }
+        
+        /**
+         * Removes and returns the top node.
+         * 
+         * @return the removed top node
+         */
+        public CopyOnWriteTree<T> pop() {
+            final CopyOnWriteTree<T> node = nodes[--size];
+            nodes[size] = null;
+            children[size] = null;
+            return node;
+        }
+        
+        /**
+         * Returns the next unvisited child of the top node and marks it as
+         * visited.
+         * 
+         * @return next unvisited child of the top node or null if all of
+         * its children have been visited
+         */
+        public CopyOnWriteTree<T> nextChild() {
+            final CopyOnWriteTree<T>[] current = children[size-1];
+            final int index = indices[size-1];
+            
+            if(index < current.length) {
+                indices[size-1] = index + 1;
+                return current[index];
+            } else {
+                return null;
+            }
+        }
+    }
+    
+    /**
+     * Iterator that iterates over this tree in pre-order.
+     * The current path is kept on a single stack which is reused for the
+     * whole traversal, so no objects are allocated per visited node.
+     */
+    private class TreeIterator implements Iterator<CopyOnWriteTree<T>> {
+        /**
+         * Path from this tree to the last returned node.
+         */
+        private final PathStack<T> stack = new PathStack<>();
+        /**
+         * Node to be returned next or null if the traversal is finished.
+         */
+        private CopyOnWriteTree<T> next = CopyOnWriteTree.this;
+        
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public CopyOnWriteTree<T> next() {
+            if(next == null) {
+                throw new NoSuchElementException();
+            }
+            
+            final CopyOnWriteTree<T> node = next;
+            stack.push(node);
+            next = advance();
+            return node;
+        }
+        
+        /**
+         * Finds the next node in pre-order, which is the next unvisited child
+         * of the deepest node on the path that still has one.
+         * 
+         * @return next node or null if the traversal is finished
+         */
+        private CopyOnWriteTree<T> advance() {
+            while(!stack.isEmpty()) {
+                final CopyOnWriteTree<T> child = stack.nextChild();
+                if(child != null) {
+                    return child;
+                }
+                stack.pop();  //Subtree finished
+            }
+            
+            return null;
+        }
+    }
+}
@@ -0,0 +1,531 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2019 Sebastian Gössl
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+
+
+package tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.swing.tree.TreeNode;
+
+
+
+/**
+ * Tree grown with a growth function whose identical sub trees are stored
+ * only once.
+ * The growth function is applied only once per distinct data value and
+ * every node holding an equal value shares the same sub tree, so the tree
+ * is stored as a directed acyclic graph. Search spaces in which the same
+ * states are reached on many paths therefore take a fraction of the memory
+ * and growth time of a {@link Tree}, often exponentially less.
+ * The shared structure is presented as an ordinary tree through lightweight
+ * {@link Node} views that are created on demand.
+ * The data must have consistent {@code equals} and {@code hashCode}
+ * methods and the growth function must return the same children for equal
+ * data.
+ * 
+ * @author Sebastian Gössl
+ * @version 1.0 17.10.2026
+ * @param <T> data type the tree stores
+ */
+public class DagTree<T> {
+    
+    /**
+     * Shared structure of the root node.
+     */
+    private final Shape<T> root;
+    /**
+     * Number of distinct sub trees.
+     */
+    private final int shapes;
+    
+    
+    
+    /**
+     * Constructs a new tree and grows it with the given function.
+     * The function is applied once for every distinct data value.
+     * 
+     * @param data data of the root node
+     * @param grow growth function
+     * @throws IllegalArgumentException if the growth function returns data
+     * that is equal to the data of an ancestor, which would make the tree
+     * infinite
+     */
+    @SuppressWarnings("unchecked")
+    public DagTree(T data, Function<T, Iterable<T>> grow) {
+        //Finished shapes, or null for the data of nodes still being grown
+        final Map<T, Shape<T>> memo = new HashMap<>();
+        
+        //Nodes on the path from the root whose children are still grown
+        final List<T> path = new ArrayList<>();
+        final List<List<T>> pending = new ArrayList<>();
+        final List<List<Shape<T>>> grown = new ArrayList<>();
+        
+        Shape<T> root = null;
+        path.add(data);
+        pending.add(children(data, grow));
+        grown.add(new ArrayList<>());
+        memo.put(data, null);
+        while(root == null) {
+            final int top = path.size() - 1;
+            final List<T> todo = pending.get(top);
+            final List<Shape<T>> done = grown.get(top);
+            
+            if(done.size() < todo.size()) {
+                final T child = todo.get(done.size());
+                final Shape<T> shape = memo.get(child);
+                if(shape != null) {  //Already grown
+                    done.add(shape);
+                } else if(memo.containsKey(child)) {
+                    throw new IllegalArgumentException(
+                            "Cycle through: " + child);
+                } else {
+                    path.add(child);
+                    pending.add(children(child, grow));
+                    grown.add(new ArrayList<>());
+                    memo.put(child, null);
+                }
+                continue;
+            }
+            
+            //All children grown
+            final Shape<T> shape = new Shape<>(path.remove(top),
+                    done.toArray(new Shape[done.size()]));
+            pending.remove(top);
+            grown.remove(top);
+            memo.put(shape.data, shape);
+            if(top > 0) {
+                grown.get(top - 1).add(shape);
+            } else {
+                root = shape;
+            }
+        }
+        
+        this.root = root;
+        shapes = memo.size();
+    }
+    
+    /**
+     * Returns the data of the children the given function grows for the
+     * given data.
+     * 
+     * @param data data of the node
+     * @param grow growth function
+     * @return data of the children
+     */
+    private static <T> List<T> children(T data,
+            Function<T, Iterable<T>> grow) {
+        
+        final List<T> children = new ArrayList<>();
+        for(T child : grow.apply(data)) {
+            children.add(child);
+        }
+        return children;
+    }
+    
+    
+    
+    /**
+     * Returns the number of nodes in this tree, counting every shared sub
+     * tree as often as it appears.
+     * 
+     * @return number of nodes in this tree
+     */
+    public long size() {
+        return root.size;
+    }
+    
+    /**
+     * Returns the number of distinct sub trees, which is the number of
+     * nodes actually stored.
+     * 
+     * @return number of distinct sub trees
+     */
+    public int getSharedSize() {
+        return shapes;
+    }
+    
+    /**
+     * Returns the height of this tree, which is the number of edges on the
+     * longest path from the root node down to a leaf.
+     * 
+     * @return height of this tree
+     */
+    public int height() {
+        return root.height;
+    }
+    
+    /**
+     * Returns a view of the root node.
+     * 
+     * @return view of the root node
+     */
+    public Node getRoot() {
+        return new Node(root, null, -1);
+    }
+    
+    /**
+     * Returns a copy of this tree in which no sub trees are shared.
+     * The copy has {@link #size()} nodes, which may be exponentially more
+     * than this tree stores.
+     * 
+     * @return unshared copy of this tree
+     */
+    @SuppressWarnings("unchecked")
+    public Tree<T> toTree() {
+        final Tree<T> tree = new Tree<>(root.data);
+        
+        //Nodes on the path from the root whose children are still copied
+        Shape<T>[] shapes = new Shape[16];
+        Tree<T>[] copies = new Tree[16];
+        int[] next = new int[16];
+        int size = 0;
+        
+        shapes[0] = root;
+        copies[0] = tree;
+        size++;
+        while(size > 0) {
+            final Shape<T> shape = shapes[size-1];
+            if(next[size-1] == shape.children.length) {  //Sub tree complete
+                final Tree<T> copy = copies[--size];
+                shapes[size] = null;
+                copies[size] = null;
+                if(size > 0) {
+                    copies[size-1].attach(copy);
+                }
+                continue;
+            }
+            
+            final Shape<T> child = shape.children[next[size-1]++];
+            if(size == shapes.length) {
+                shapes = Arrays.copyOf(shapes, 2*size);
+                copies = Arrays.copyOf(copies, 2*size);
+                next = Arrays.copyOf(next, 2*size);
+            }
+            shapes[size] = child;
+            copies[size] = copies[size-1].newChild(child.data);
+            next[size] = 0;
+            size++;
+        }
+        
+        return tree;
+    }
+    
+    
+    
+    /**
+     * Sub tree that is shared by all nodes holding the same data.
+     * 
+     * @param <T> data type of the nodes
+     */
+    private static final class Shape<T> {
+        /**
+         * Data of the nodes.
+         */
+        private final T data;
+        /**
+         * Shared sub trees of the children.
+         */
+        private final Shape<T>[] children;
+        /**
+         * Number of nodes in the sub tree, counting shared sub trees as
+         * often as they appear.
+         */
+        private final long size;
+        /**
+         * Number of edges on the longest path down to a leaf.
+         */
+        private final int height;
+        
+        
+        
+        /**
+         * Constructs a new shared sub tree.
+         * 
+         * @param data data of the nodes
+         * @param children shared sub trees of the children
+         */
+        public Shape(T data, Shape<T>[] children) {
+            this.data = data;
+            this.children = children;
+            
+            long size = 1;
+            int height = 0;
+            for(Shape<T> child : children) {
+                size += child.size;
+                height = Math.max(height, child.height + 1);
+            }
+            this.size = size;
+            this.height = height;
+        }
+    }
+    
+    /**
+     * View of a single node of a tree with shared sub trees.
+     * It holds the shared sub tree and the path from the root node, which
+     * distinguishes the nodes that share a sub tree.
+     */
+    public final class Node implements TreeNode {
+        
+        /**
+         * Shared sub tree of this node.
+         */
+        private final Shape<T> shape;
+        /**
+         * Parent of this node or null for the root node.
+         */
+        private final Node parent;
+        /**
+         * Position of this node in the children of its parent or -1 for the
+         * root node.
+         */
+        private final int index;
+        /**
+         * Number of edges between this node and the root node.
+         */
+        private final int depth;
+        
+        
+        
+        /**
+         * Constructs a new view of a node.
+         * 
+         * @param shape shared sub tree of the node
+         * @param parent parent of the node or null for the root node
+         * @param index position of the node in the children of its parent
+         */
+        private Node(Shape<T> shape, Node parent, int index) {
+            this.shape = shape;
+            this.parent = parent;
+            this.index = index;
+            this.depth = (parent != null) ? parent.depth + 1 : 0;
+        }
+        
+        
+        
+        /**
+         * Returns the data of this node.
+         * 
+         * @return data of this node
+         */
+        public T getData() {
+            return shape.data;
+        }
+        
+        /**
+         * Returns the children of this node.
+         * 
+         * @return children of this node
+         */
+        public List<Node> getChildren() {
+            final List<Node> children = new ArrayList<>(shape.children.length);
+            for(int i=0; i<shape.children.length; i++) {
+                children.add(new Node(shape.children[i], this, i));
+            }
+            return children;
+        }
+        
+        /**
+         * Returns if this is a root node.
+         * 
+         * @return if this is a root node
+         */
+        public boolean isRoot() {
+            return parent == null;
+        }
+        
+        /**
+         * Returns the depth of this node, which is the number of edges
+         * between this node and the root node.
+         * 
+         * @return depth of this node
+         */
+        public int depth() {
+            return depth;
+        }
+        
+        /**
+         * Returns the number of nodes in the sub tree of this node,
+         * including this node.
+         * 
+         * @return number of nodes in the sub tree of this node
+         */
+        public long size() {
+            return shape.size;
+        }
+        
+        /**
+         * Returns the height of this node, which is the number of edges on
+         * the longest path from this node down to a leaf.
+         * 
+         * @return height of this node
+         */
+        public int height() {
+            return shape.height;
+        }
+        
+        /**
+         * Performs the given action for each node in the sub tree of this
+         * node in pre-order.
+         * Shared sub trees are visited as often as they appear.
+         * 
+         * @param action to be performed for every node in pre-order
+         */
+        public void preOrder(Consumer<? super Node> action) {
+            final List<Node> stack = new ArrayList<>();
+            
+            stack.add(this);
+            while(!stack.isEmpty()) {
+                final Node node = stack.remove(stack.size() - 1);
+                action.accept(node);
+                
+                for(int i=node.shape.children.length-1; i>=0; i--) {
+                    stack.add(new Node(node.shape.children[i], node, i));
+                }
+            }
+        }
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Node getParent() {
+            return parent;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isLeaf() {
+            return shape.children.length == 0;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Node getChildAt(int childIndex) {
+            return new Node(shape.children[childIndex], this, childIndex);
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int getChildCount() {
+            return shape.children.length;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int getIndex(TreeNode node) {
+            if(node instanceof DagTree.Node && equals(node.getParent())) {
+                return ((DagTree<?>.Node)node).index;
+            }
+            
+            return -1;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean getAllowsChildren() {
+            return true;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Enumeration<Node> children() {
+            return Collections.enumeration(getChildren());
+        }
+        
+        
+        /**
+         * Returns the tree this node belongs to.
+         * 
+         * @return tree this node belongs to
+         */
+        private DagTree<T> tree() {
+            return DagTree.this;
+        }
+        
+        /**
+         * Returns if the given object is a view of the same node, which is
+         * the case if it has the same path from the same root node.
+         * 
+         * @param obj object to be compared with
+         * @return if the object is a view of the same node
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if(!(obj instanceof DagTree.Node)
+                    || ((DagTree<?>.Node)obj).tree() != DagTree.this) {
+                return false;
+            }
+            
+            DagTree<?>.Node other = (DagTree<?>.Node)obj;
+            for(Node node=this; node!=null; node=node.parent) {
+                if(other == node) {
+                    return true;
+                }
+                if(other.index != node.index || other.depth != node.depth) {
+                    return false;
+                }
+                other = other.parent;
+            }
+            return true;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return 31*System.identityHashCode(shape) + index;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return String.valueOf(getData());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2019 Sebastian Gössl
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+
+
+package tree;
+
+
+
+
+/**
+ * Immutable tree stored in arrays instead of node objects.
+ * The nodes are numbered in pre-order, so the sub tree of every node is the
+ * range of nodes from itself to itself plus its size. The structure is
+ * stored in int arrays indexed by these numbers and the data in a single
+ * array, which takes a fraction of the memory of a {@link Tree} and turns
+ * traversals into sequential array scans.
+ * Nodes are addressed by their numbers or through lightweight
+ * {@link Node} views that are created on demand.
+ * 
+ * @author Sebastian Gössl
+ * @version 1.0 17.10.2026
+ * @param <T> data type the tree stores
+ * @see MappedTree
+ */
+public class FrozenTree<T> extends PreOrderTree<T> {
+    
+    /**
+     * Data of the nodes.
+     */
+    private final Object[] data;
+    /**
+     * Parent of every node or -1 for the root node.
+     */
+    private final int[] parents;
+    /**
+     * Next sibling of every node or -1 if it is the last child.
+     */
+    private final int[] nextSiblings;
+    /**
+     * Number of nodes in the sub tree of every node, including the node.
+     * The first child of a node, if any, directly follows it.
+     */
+    private final int[] sizes;
+    
+    
+    
+    /**
+     * Constructs a new frozen copy of the given tree.
+     * The given tree must not have lazily grown nodes that have not been
+     * expanded.
+     * 
+     * @param root root of the tree to be copied
+     */
+    FrozenTree(Tree<T> root) {
+        final int n = root.size();
+        data = new Object[n];
+        parents = new int[n];
+        nextSiblings = new int[n];
+        sizes = new int[n];
+        
+        final Numbering<T> numbering = new Numbering<>(root);
+        while(numbering.next()) {
+            final int i = numbering.number();
+            data[i] = numbering.node().getData();
+            parents[i] = numbering.parent();
+            nextSiblings[i] = numbering.nextSibling();
+            sizes[i] = numbering.size();
+        }
+    }
+    
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return sizes.length;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getData(int node) {
+        return (T)data[node];
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getParent(int node) {
+        return parents[node];
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNextSibling(int node) {
+        return nextSiblings[node];
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize(int node) {
+        return sizes[node];
+    }
+}
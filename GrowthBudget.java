@@ -0,0 +1,134 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2019 Sebastian Gössl
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+
+
+package tree;
+
+
+
+/**
+ * Limits for the budgeted growth of a {@link Tree}.
+ * A tree grown with a budget stops growing gracefully when a limit is
+ * reached and marks the nodes where it stopped as truncated.
+ * The byte limit is compared with an estimate of the memory the nodes take,
+ * not with the actual heap usage.
+ * 
+ * @author Sebastian Gössl
+ * @version 1.0 17.10.2026
+ */
+public final class GrowthBudget {
+    
+    /**
+     * Estimated number of bytes a single node takes without its data,
+     * assuming compressed object pointers.
+     */
+    public static final long NODE_BYTES = 128;
+    
+    /**
+     * Budget without any limits.
+     */
+    public static final GrowthBudget UNLIMITED = new GrowthBudget(
+            Integer.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE);
+    
+    
+    /**
+     * Maximum depth of the nodes.
+     */
+    private final int maxDepth;
+    /**
+     * Maximum number of nodes, including the root node.
+     */
+    private final int maxNodes;
+    /**
+     * Maximum estimated number of bytes of all nodes.
+     */
+    private final long maxBytes;
+    
+    
+    
+    /**
+     * Constructs a new budget with the given limits.
+     * 
+     * @param maxDepth maximum depth of the nodes (the root node has depth 0)
+     * @param maxNodes maximum number of nodes, including the root node
+     * @param maxBytes maximum estimated number of bytes of all nodes
+     */
+    public GrowthBudget(int maxDepth, int maxNodes, long maxBytes) {
+        if(maxDepth < 0) {
+            throw new IllegalArgumentException("Illegal depth: " + maxDepth);
+        }
+        if(maxNodes < 1) {
+            throw new IllegalArgumentException(
+                    "Illegal node count: " + maxNodes);
+        }
+        if(maxBytes < 0) {
+            throw new IllegalArgumentException(
+                    "Illegal byte count: " + maxBytes);
+        }
+        
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.maxBytes = maxBytes;
+    }
+    
+    
+    
+    /**
+     * Returns the maximum depth of the nodes.
+     * 
+     * @return maximum depth of the nodes
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+    
+    /**
+     * Returns the maximum number of nodes, including the root node.
+     * 
+     * @return maximum number of nodes
+     */
+    public int getMaxNodes() {
+        return maxNodes;
+    }
+    
+    /**
+     * Returns the maximum estimated number of bytes of all nodes.
+     * 
+     * @return maximum estimated number of bytes of all nodes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "GrowthBudget[maxDepth=" + maxDepth + ", maxNodes=" + maxNodes
+                + ", maxBytes=" + maxBytes + "]";
+    }
+}
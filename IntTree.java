@@ -0,0 +1,221 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2019 Sebastian Gössl
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+
+
+package tree;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+
+
+/**
+ * Tree of unboxed {@code int} values.
+ * It offers the same operations as a {@link Tree}, but stores the data of
+ * all nodes in a single {@code int} array, grows with a function returning
+ * arrays and passes unboxed values to the traversal actions.
+ * An instance is a handle of a node in the shared store of its tree.
+ * The children are linked instead of kept in a list, see
+ * {@link PrimitiveTree} for the cost of accessing them by index.
+ * 
+ * @author Sebastian Gössl
+ * @version 1.0 17.10.2026
+ * @see PrimitiveTree
+ */
+public class IntTree extends PrimitiveTree<IntTree, IntTree.Store> {
+    
+    /**
+     * Constructs a new root node with the given data.
+     * 
+     * @param data data of this node
+     */
+    public IntTree(int data) {
+        super(new Store());
+        store.data[node] = data;
+    }
+    
+    /**
+     * Constructs a new root node and grows a sub tree with the given function.
+     * The function is applied on every node and every returned value is added
+     * as a new child node.
+     * 
+     * @param data data of the this node
+     * @param grow growth function
+     */
+    public IntTree(int data, IntFunction<int[]> grow) {
+        this(data);
+        grow(grow);
+    }
+    
+    /**
+     * Constructs a new handle of the given node.
+     * 
+     * @param store store that holds the node
+     * @param node number of the node
+     */
+    private IntTree(Store store, int node) {
+        super(store, node);
+    }
+    
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected IntTree handle(int node) {
+        return new IntTree(store, node);
+    }
+    
+    /**
+     * Grows the sub tree of this node with the given function.
+     * The nodes are expanded in pre-order by following the links of the
+     * store, so no recursion is needed.
+     * 
+     * @param grow growth function
+     */
+    private void grow(IntFunction<int[]> grow) {
+        for(int n=node; n>=0; n=nextPreOrder(n)) {
+            for(int child : grow.apply(store.data[n])) {
+                final int c = store.allocate(n);
+                store.data[c] = child;
+            }
+        }
+    }
+    
+    
+    /**
+     * Returns the data of this node.
+     * 
+     * @return data of this node
+     */
+    public int getData() {
+        return store.data[node];
+    }
+    
+    
+    /**
+     * Adds a new child node with the given data.
+     * 
+     * @param child data of the child to be added
+     * @return the newly added child node
+     */
+    public IntTree add(int child) {
+        final int n = store.allocate(node);
+        store.data[n] = child;
+        return new IntTree(store, n);
+    }
+    
+    /**
+     * Adds a new child node with the given data and grows a sub tree from
+     * this child with the given function.
+     * 
+     * @param child data of the child to be added
+     * @param grow growth function
+     * @return the newly added child node
+     */
+    public IntTree add(int child, IntFunction<int[]> grow) {
+        final IntTree node = add(child);
+        node.grow(grow);
+        return node;
+    }
+    
+    /**
+     * Removes the first child that holds the given data and returns the
+     * whole node.
+     * 
+     * @param child data of the child to be removed
+     * @return removed child node or null if no child holds the given data
+     */
+    public IntTree removeData(int child) {
+        int i = 0;
+        for(int c=store.firstChild(node); c>=0; c=store.nextSibling(c)) {
+            if(store.data[c] == child) {
+                return remove(i);
+            }
+            i++;
+        }
+        
+        return null;
+    }
+    
+    
+    /**
+     * Performs the given action for the data of each node in this tree in
+     * pre-order.
+     * 
+     * @param action to be performed for every node in pre-order
+     */
+    public void preOrder(IntConsumer action) {
+        for(int n=node; n>=0; n=nextPreOrder(n)) {
+            action.accept(store.data[n]);
+        }
+    }
+    
+    /**
+     * Performs the given action for the data of each node in this tree in
+     * post-order.
+     * 
+     * @param action to be performed for every node in post-order
+     */
+    public void postOrder(IntConsumer action) {
+        for(int n=firstPostOrder(); n>=0; n=nextPostOrder(n)) {
+            action.accept(store.data[n]);
+        }
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.valueOf(getData());
+    }
+    
+    
+    
+    /**
+     * Store that additionally holds the data of the nodes.
+     */
+    static final class Store extends PrimitiveTree.ArrayStore {
+        /**
+         * Data of every node.
+         */
+        private int[] data = new int[0];
+        
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void resize(int capacity) {
+            super.resize(capacity);
+            data = Arrays.copyOf(data, capacity);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2019 Sebastian Gössl
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+
+
+package tree;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+
+
+/**
+ * Index of a tree that answers lowest common ancestor, ancestor and distance
+ * queries in constant time.
+ * The nodes are numbered in pre-order, so the sub tree of every node is a
+ * range of numbers and ancestor tests are two comparisons. The lowest
+ * common ancestor of two different nodes is the parent of the shallowest
+ * node between them in pre-order, which a sparse table of range minima
+ * finds with two lookups. Building the index takes O(n log n) time and
+ * memory.
+ * The index is a snapshot of the tree: it is not updated when the tree is
+ * modified. Lazily grown trees are expanded completely.
+ * 
+ * @author Sebastian Gössl
+ * @version 1.0 17.10.2026
+ * @param <T> data type of the tree
+ */
+public class LcaIndex<T> {
+    
+    /**
+     * Numbers of the nodes in pre-order.
+     */
+    private final Map<Tree<T>, Integer> numbers = new IdentityHashMap<>();
+    /**
+     * Nodes by their numbers.
+     */
+    private final Tree<T>[] nodes;
+    /**
+     * Number of the parent of every node or -1 for the root node.
+     */
+    private final int[] parents;
+    /**
+     * Depth of every node relative to the root node.
+     */
+    private final int[] depths;
+    /**
+     * Number of nodes in the sub tree of every node, including the node.
+     */
+    private final int[] sizes;
+    /**
+     * Sparse table: the entry {@code k, i} is the number of the shallowest
+     * node among the {@code 2^k} nodes starting at {@code i}.
+     */
+    private final int[][] minima;
+    
+    
+    
+    /**
+     * Constructs a new index of the given tree.
+     * 
+     * @param root root of the tree to be indexed
+     */
+    @SuppressWarnings("unchecked")
+    public LcaIndex(Tree<T> root) {
+        root.expandAll();
+        final int n = root.size();
+        nodes = new Tree[n];
+        parents = new int[n];
+        depths = new int[n];
+        sizes = new int[n];
+        
+        int i = 0;
+        for(Tree<T> node : root) {
+            numbers.put(node, i);
+            nodes[i] = node;
+            depths[i] = node.depth() - root.depth();
+            parents[i] = (depths[i] > 0) ? numbers.get(node.getParent()) : -1;
+            sizes[i] = node.size();
+            i++;
+        }
+        
+        final int levels = 32 - Integer.numberOfLeadingZeros(n);
+        minima = new int[levels][];
+        minima[0] = new int[n];
+        for(int j=0; j<n; j++) {
+            minima[0][j] = j;
+        }
+        for(int k=1; k<levels; k++) {
+            final int[] previous = minima[k-1];
+            final int half = 1 << (k-1);
+            final int[] current = new int[n - (1 << k) + 1];
+            for(int j=0; j<current.length; j++) {
+                current[j] = shallower(previous[j], previous[j + half]);
+            }
+            minima[k] = current;
+        }
+    }
+    
+    
+    
+    /**
+     * Returns the lowest common ancestor of the given nodes, which is the
+     * deepest node that is an ancestor of both of them.
+     * A node is considered an ancestor of itself.
+     * 
+     * @param a first node
+     * @param b second node
+     * @return lowest common ancestor of the nodes
+     * @throws IllegalArgumentException if a node is not part of the indexed
+     * tree
+     */
+    public Tree<T> lca(Tree<T> a, Tree<T> b) {
+        return nodes[lca(number(a), number(b))];
+    }
+    
+    /**
+     * Returns if the given node is an ancestor of the other given node.
+     * A node is considered an ancestor of itself.
+     * 
+     * @param ancestor possible ancestor
+     * @param node node whose ancestors are tested
+     * @return if the possible ancestor is an ancestor of the node
+     * @throws IllegalArgumentException if a node is not part of the indexed
+     * tree
+     */
+    public boolean isAncestor(Tree<T> ancestor, Tree<T> node) {
+        return isAncestor(number(ancestor), number(node));
+    }
+    
+    /**
+     * Returns the distance between the given nodes, which is the number of
+     * edges on the path between them.
+     * 
+     * @param a first node
+     * @param b second node
+     * @return distance between the nodes
+     * @throws IllegalArgumentException if a node is not part of the indexed
+     * tree
+     */
+    public int distance(Tree<T> a, Tree<T> b) {
+        final int u = number(a);
+        final int v = number(b);
+        return depths[u] + depths[v] - 2*depths[lca(u, v)];
+    }
+    
+    
+    /**
+     * Returns the number of the given node.
+     * 
+     * @param node node of the indexed tree
+     * @return number of the node
+     * @throws IllegalArgumentException if the node is not part of the
+     * indexed tree
+     */
+    private int number(Tree<T> node) {
+        final Integer number = numbers.get(node);
+        if(number == null) {
+            throw new IllegalArgumentException("Node not indexed: " + node);
+        }
+        return number;
+    }
+    
+    /**
+     * Returns if the first given node is an ancestor of the second one.
+     * 
+     * @param ancestor number of the possible ancestor
+     * @param node number of the node
+     * @return if the possible ancestor is an ancestor of the node
+     */
+    private boolean isAncestor(int ancestor, int node) {
+        return ancestor <= node && node < ancestor + sizes[ancestor];
+    }
+    
+    /**
+     * Returns the lowest common ancestor of the given nodes.
+     * 
+     * @param u number of the first node
+     * @param v number of the second node
+     * @return number of the lowest common ancestor
+     */
+    private int lca(int u, int v) {
+        if(isAncestor(u, v)) {
+            return u;
+        }
+        if(isAncestor(v, u)) {
+            return v;
+        }
+        
+        //The shallowest node after the first one up to the second one is a
+        //child of the lowest common ancestor
+        final int from = Math.min(u, v) + 1;
+        final int to = Math.max(u, v);
+        final int k = 31 - Integer.numberOfLeadingZeros(to - from + 1);
+        return parents[shallower(minima[k][from],
+                minima[k][to - (1 << k) + 1])];
+    }
+    
+    /**
+     * Returns the shallower one of the given nodes, or the first one if
+     * both have the same depth.
+     * 
+     * @param u number of the first node
+     * @param v number of the second node
+     * @return number of the shallower node
+     */
+    private int shallower(int u, int v) {
+        return (depths[v] < depths[u]) ? v : u;
+    }
+}
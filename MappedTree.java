@@ -0,0 +1,400 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2019 Sebastian Gössl
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+
+
+package tree;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Function;
+
+
+
+/**
+ * Read only tree that is mapped from a file into memory.
+ * A tree is written with {@link #write(Tree, Path, Function)} and opened
+ * with {@link #open(Path, Function)}, which only maps the file. Nodes are
+ * read in place from the mapped file whenever they are accessed, so opening
+ * even very big trees takes no time and the operating system decides which
+ * parts are kept in memory.
+ * The nodes are numbered in pre-order like in a {@link FrozenTree}. The
+ * file starts with a header, followed by a fixed size record for every node
+ * and then the encoded data of all nodes:
+ * <pre>
+ * header: magic (int), version (int), node count (int), reserved (int),
+ *         data size (long)
+ * record: parent (int), next sibling (int), size (int),
+ *         data length (int), data offset (long)
+ * </pre>
+ * The data of a node never crosses a gigabyte boundary of the data section,
+ * so the sections can be mapped in chunks.
+ * 
+ * @author Sebastian Gössl
+ * @version 1.0 17.10.2026
+ * @param <T> data type the tree stores
+ * @see FrozenTree
+ */
+public class MappedTree<T> extends PreOrderTree<T> {
+    
+    /**
+     * Magic number at the start of every file.
+     */
+    private static final int MAGIC = 0x54524545;
+    /**
+     * Version of the file format.
+     */
+    private static final int VERSION = 1;
+    /**
+     * Size of the header in bytes.
+     */
+    private static final int HEADER_SIZE = 24;
+    /**
+     * Size of a record in bytes.
+     */
+    private static final int RECORD_SIZE = 24;
+    /**
+     * Offset of the parent in a record.
+     */
+    private static final int PARENT = 0;
+    /**
+     * Offset of the next sibling in a record.
+     */
+    private static final int NEXT_SIBLING = 4;
+    /**
+     * Offset of the size of the sub tree in a record.
+     */
+    private static final int SIZE = 8;
+    /**
+     * Offset of the length of the data in a record.
+     */
+    private static final int DATA_LENGTH = 12;
+    /**
+     * Offset of the offset of the data in a record.
+     */
+    private static final int DATA_OFFSET = 16;
+    /**
+     * Binary logarithm of the number of records per mapped chunk.
+     */
+    private static final int RECORD_CHUNK_BITS = 24;
+    /**
+     * Binary logarithm of the number of data bytes per mapped chunk.
+     */
+    private static final int DATA_CHUNK_BITS = 30;
+    /**
+     * Size of the buffers used for writing.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    
+    /**
+     * Number of nodes.
+     */
+    private final int size;
+    /**
+     * Mapped chunks of records.
+     */
+    private final ByteBuffer[] records;
+    /**
+     * Mapped chunks of data.
+     */
+    private final ByteBuffer[] data;
+    /**
+     * Function that decodes the data of a node.
+     */
+    private final Function<ByteBuffer, ? extends T> decoder;
+    
+    
+    
+    /**
+     * Constructs a new tree from the given mapped chunks.
+     * 
+     * @param size number of nodes
+     * @param records mapped chunks of records
+     * @param data mapped chunks of data
+     * @param decoder function that decodes the data of a node
+     */
+    private MappedTree(int size, ByteBuffer[] records, ByteBuffer[] data,
+            Function<ByteBuffer, ? extends T> decoder) {
+        
+        this.size = size;
+        this.records = records;
+        this.data = data;
+        this.decoder = decoder;
+    }
+    
+    
+    
+    /**
+     * Writes the given tree to the given file.
+     * Lazily grown trees are expanded completely first.
+     * 
+     * @param <T> data type of the tree
+     * @param tree tree to be written
+     * @param file file to be written to, it is replaced if it exists
+     * @param encoder function that encodes the data of a node
+     * @throws IOException if an I/O error occurs or the encoded data of a
+     * node is bigger than a gigabyte
+     */
+    public static <T> void write(Tree<T> tree, Path file,
+            Function<? super T, byte[]> encoder) throws IOException {
+        
+        tree.expandAll();
+        final int n = tree.size();
+        final long dataStart = HEADER_SIZE + (long)n*RECORD_SIZE;
+        
+        try(FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            
+            final ByteBuffer records = ByteBuffer.allocate(
+                    BUFFER_SIZE / RECORD_SIZE * RECORD_SIZE);
+            long recordPosition = HEADER_SIZE;
+            final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long bufferOffset = 0;  //Data offset of the buffer's start
+            
+            final Numbering<T> numbering = new Numbering<>(tree);
+            while(numbering.next()) {
+                final int i = numbering.number();
+                final byte[] bytes = encoder.apply(numbering.node().getData());
+                if(bytes.length > 1 << DATA_CHUNK_BITS) {
+                    throw new IOException("Data of node " + i + " too big");
+                }
+                
+                //Skip to the next chunk if the data would cross its start
+                long offset = bufferOffset + buffer.position();
+                final long chunkEnd =
+                        ((offset >>> DATA_CHUNK_BITS) + 1) << DATA_CHUNK_BITS;
+                if(offset + bytes.length > chunkEnd) {
+                    flush(channel, buffer, dataStart + bufferOffset);
+                    offset = bufferOffset = chunkEnd;
+                }
+                
+                if(bytes.length > buffer.remaining()) {
+                    bufferOffset += flush(channel, buffer,
+                            dataStart + bufferOffset);
+                }
+                if(bytes.length > buffer.remaining()) {  //Write directly
+                    final ByteBuffer wrapped = ByteBuffer.wrap(bytes);
+                    wrapped.position(bytes.length);
+                    bufferOffset += flush(channel, wrapped,
+                            dataStart + bufferOffset);
+                } else {
+                    buffer.put(bytes);
+                }
+                
+                if(records.remaining() < RECORD_SIZE) {
+                    recordPosition += flush(channel, records, recordPosition);
+                }
+                records.putInt(numbering.parent());
+                records.putInt(numbering.nextSibling());
+                records.putInt(numbering.size());
+                records.putInt(bytes.length);
+                records.putLong(offset);
+            }
+            flush(channel, records, recordPosition);
+            final long dataSize = bufferOffset + buffer.position();
+            flush(channel, buffer, dataStart + bufferOffset);
+            
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(0)
+                    .putLong(dataSize);
+            flush(channel, header, 0);
+        }
+    }
+    
+    /**
+     * Writes the content of the given buffer to the given position of the
+     * given channel and clears the buffer.
+     * 
+     * @param channel channel to be written to
+     * @param buffer buffer to be written
+     * @param position position in the channel
+     * @return number of written bytes
+     * @throws IOException if an I/O error occurs
+     */
+    private static int flush(FileChannel channel, ByteBuffer buffer,
+            long position) throws IOException {
+        
+        buffer.flip();
+        final int length = buffer.remaining();
+        while(buffer.hasRemaining()) {
+            channel.write(buffer, position + length - buffer.remaining());
+        }
+        buffer.clear();
+        
+        return length;
+    }
+    
+    /**
+     * Opens the tree stored in the given file by mapping it into memory.
+     * 
+     * @param <T> data type of the tree
+     * @param file file to be opened
+     * @param decoder function that decodes the data of a node from a
+     * buffer containing exactly its encoded data
+     * @return the mapped tree
+     * @throws IOException if an I/O error occurs or the file is no tree
+     */
+    public static <T> MappedTree<T> open(Path file,
+            Function<ByteBuffer, ? extends T> decoder) throws IOException {
+        
+        try(FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            
+            final ByteBuffer header = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if(header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a tree file: " + file);
+            }
+            final int size = header.getInt();
+            header.getInt();
+            final long dataSize = header.getLong();
+            final long dataStart = HEADER_SIZE + (long)size*RECORD_SIZE;
+            
+            final ByteBuffer[] records =
+                    new ByteBuffer[(int)chunks(size, RECORD_CHUNK_BITS)];
+            for(int i=0; i<records.length; i++) {
+                final long first = (long)i << RECORD_CHUNK_BITS;
+                final long count = Math.min(size - first,
+                        1L << RECORD_CHUNK_BITS);
+                records[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_SIZE + first*RECORD_SIZE, count*RECORD_SIZE);
+            }
+            
+            final ByteBuffer[] data =
+                    new ByteBuffer[(int)chunks(dataSize, DATA_CHUNK_BITS)];
+            for(int i=0; i<data.length; i++) {
+                final long first = (long)i << DATA_CHUNK_BITS;
+                final long count = Math.min(dataSize - first,
+                        1L << DATA_CHUNK_BITS);
+                data[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        dataStart + first, count);
+            }
+            
+            return new MappedTree<>(size, records, data, decoder);
+        }
+    }
+    
+    /**
+     * Returns the number of chunks needed for the given number of elements.
+     * 
+     * @param count number of elements
+     * @param bits binary logarithm of the number of elements per chunk
+     * @return number of chunks
+     */
+    private static long chunks(long count, int bits) {
+        return (count + (1L << bits) - 1) >>> bits;
+    }
+    
+    
+    
+    /**
+     * Returns the chunk that holds the record of the given node.
+     * 
+     * @param node number of the node
+     * @return chunk of the node
+     */
+    private ByteBuffer chunk(int node) {
+        return records[node >>> RECORD_CHUNK_BITS];
+    }
+    
+    /**
+     * Returns the offset of a field of the record of the given node in its
+     * chunk.
+     * 
+     * @param node number of the node
+     * @param field offset of the field in the record
+     * @return offset of the field in the chunk
+     */
+    private static int offset(int node, int field) {
+        return (node & ((1 << RECORD_CHUNK_BITS) - 1))*RECORD_SIZE + field;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * It is decoded from the mapped file on every call.
+     */
+    @Override
+    public T getData(int node) {
+        return decoder.apply(getEncodedData(node));
+    }
+    
+    /**
+     * Returns the encoded data of the given node.
+     * The buffer is a read only view of the mapped file, no data is copied.
+     * 
+     * @param node number of the node
+     * @return buffer containing exactly the encoded data of the node
+     */
+    public ByteBuffer getEncodedData(int node) {
+        final int length = chunk(node).getInt(offset(node, DATA_LENGTH));
+        if(length == 0) {
+            return ByteBuffer.allocate(0).asReadOnlyBuffer();
+        }
+        
+        final long offset = chunk(node).getLong(offset(node, DATA_OFFSET));
+        final int start = (int)(offset & ((1L << DATA_CHUNK_BITS) - 1));
+        final ByteBuffer buffer =
+                data[(int)(offset >>> DATA_CHUNK_BITS)].duplicate();
+        buffer.limit(start + length);
+        buffer.position(start);
+        return buffer.slice().asReadOnlyBuffer();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getParent(int node) {
+        return chunk(node).getInt(offset(node, PARENT));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNextSibling(int node) {
+        return chunk(node).getInt(offset(node, NEXT_SIBLING));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize(int node) {
+        return chunk(node).getInt(offset(node, SIZE));
+    }
+}
@@ -0,0 +1,428 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2019 Sebastian Gössl
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+
+
+package tree;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+
+
+
+/**
+ * Tree of {@code long} values stored outside of the Java heap.
+ * The links and the data of all nodes are kept in fixed size records in
+ * direct buffers, so the heap only holds a few buffer objects no matter how
+ * big the tree gets and garbage collection pauses stay short. It offers the
+ * same operations as a {@link LongTree} at the same costs.
+ * An instance is a handle of a node in the shared store of its tree. The
+ * off-heap memory is released when the tree is no longer referenced.
+ * Every node takes 32 bytes of direct memory. The JVM limits the direct
+ * memory with {@code -XX:MaxDirectMemorySize}, which defaults to the
+ * maximum heap size, and adding nodes beyond it fails with an
+ * {@code OutOfMemoryError: Direct buffer memory}. Big trees therefore need
+ * this limit to be raised, for example {@code -XX:MaxDirectMemorySize=8g}.
+ * 
+ * @author Sebastian Gössl
+ * @version 1.0 17.10.2026
+ * @see PrimitiveTree
+ */
+public class OffHeapTree extends PrimitiveTree<OffHeapTree, OffHeapTree.Store> {
+    
+    /**
+     * Constructs a new root node with the given data.
+     * 
+     * @param data data of this node
+     */
+    public OffHeapTree(long data) {
+        super(new Store());
+        store.setData(node, data);
+    }
+    
+    /**
+     * Constructs a new root node and grows a sub tree with the given function.
+     * The function is applied on every node and every returned value is added
+     * as a new child node.
+     * 
+     * @param data data of the this node
+     * @param grow growth function
+     */
+    public OffHeapTree(long data, LongFunction<long[]> grow) {
+        this(data);
+        grow(grow);
+    }
+    
+    /**
+     * Constructs a new handle of the given node.
+     * 
+     * @param store store that holds the node
+     * @param node number of the node
+     */
+    private OffHeapTree(Store store, int node) {
+        super(store, node);
+    }
+    
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected OffHeapTree handle(int node) {
+        return new OffHeapTree(store, node);
+    }
+    
+    /**
+     * Grows the sub tree of this node with the given function.
+     * The nodes are expanded in pre-order by following the links of the
+     * store, so no recursion is needed.
+     * 
+     * @param grow growth function
+     */
+    private void grow(LongFunction<long[]> grow) {
+        for(int n=node; n>=0; n=nextPreOrder(n)) {
+            for(long child : grow.apply(store.getData(n))) {
+                store.setData(store.allocate(n), child);
+            }
+        }
+    }
+    
+    
+    /**
+     * Returns the data of this node.
+     * 
+     * @return data of this node
+     */
+    public long getData() {
+        return store.getData(node);
+    }
+    
+    
+    /**
+     * Adds a new child node with the given data.
+     * 
+     * @param child data of the child to be added
+     * @return the newly added child node
+     */
+    public OffHeapTree add(long child) {
+        final int n = store.allocate(node);
+        store.setData(n, child);
+        return new OffHeapTree(store, n);
+    }
+    
+    /**
+     * Adds a new child node with the given data and grows a sub tree from
+     * this child with the given function.
+     * 
+     * @param child data of the child to be added
+     * @param grow growth function
+     * @return the newly added child node
+     */
+    public OffHeapTree add(long child, LongFunction<long[]> grow) {
+        final OffHeapTree node = add(child);
+        node.grow(grow);
+        return node;
+    }
+    
+    /**
+     * Removes the first child that holds the given data and returns the
+     * whole node.
+     * 
+     * @param child data of the child to be removed
+     * @return removed child node or null if no child holds the given data
+     */
+    public OffHeapTree removeData(long child) {
+        int i = 0;
+        for(int c=store.firstChild(node); c>=0; c=store.nextSibling(c)) {
+            if(store.getData(c) == child) {
+                return remove(i);
+            }
+            i++;
+        }
+        
+        return null;
+    }
+    
+    
+    /**
+     * Performs the given action for the data of each node in this tree in
+     * pre-order.
+     * 
+     * @param action to be performed for every node in pre-order
+     */
+    public void preOrder(LongConsumer action) {
+        for(int n=node; n>=0; n=nextPreOrder(n)) {
+            action.accept(store.getData(n));
+        }
+    }
+    
+    /**
+     * Performs the given action for the data of each node in this tree in
+     * post-order.
+     * 
+     * @param action to be performed for every node in post-order
+     */
+    public void postOrder(LongConsumer action) {
+        for(int n=firstPostOrder(); n>=0; n=nextPostOrder(n)) {
+            action.accept(store.getData(n));
+        }
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.valueOf(getData());
+    }
+    
+    
+    
+    /**
+     * Store that keeps the links and the data in records of direct buffers.
+     * The buffers are allocated in chunks of equal size, so the store can
+     * grow beyond the limit of a single buffer without copying.
+     */
+    static final class Store extends PrimitiveTree.Store {
+        
+        /**
+         * Binary logarithm of the number of records per chunk.
+         */
+        private static final int CHUNK_BITS = 15;
+        /**
+         * Binary logarithm of the size of a record in bytes.
+         */
+        private static final int RECORD_BITS = 5;
+        
+        /**
+         * Offset of the parent in a record.
+         */
+        private static final int PARENT = 0;
+        /**
+         * Offset of the first child in a record.
+         */
+        private static final int FIRST_CHILD = 4;
+        /**
+         * Offset of the last child in a record.
+         */
+        private static final int LAST_CHILD = 8;
+        /**
+         * Offset of the next sibling in a record.
+         */
+        private static final int NEXT_SIBLING = 12;
+        /**
+         * Offset of the number of children in a record.
+         */
+        private static final int CHILD_COUNT = 16;
+        /**
+         * Offset of the position in the children of the parent in a record.
+         */
+        private static final int POSITION = 20;
+        /**
+         * Offset of the data in a record.
+         */
+        private static final int DATA = 24;
+        
+        
+        /**
+         * Chunks of records.
+         */
+        private ByteBuffer[] chunks = new ByteBuffer[0];
+        /**
+         * Number of allocated nodes.
+         */
+        private int size;
+        
+        
+        
+        /**
+         * Returns the chunk that holds the record of the given node.
+         * 
+         * @param node number of the node
+         * @return chunk of the node
+         */
+        private ByteBuffer chunk(int node) {
+            return chunks[node >>> CHUNK_BITS];
+        }
+        
+        /**
+         * Returns the offset of the record of the given node in its chunk.
+         * 
+         * @param node number of the node
+         * @param field offset of the field in the record
+         * @return offset of the field in the chunk
+         */
+        private static int offset(int node, int field) {
+            return ((node & ((1 << CHUNK_BITS) - 1)) << RECORD_BITS) + field;
+        }
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int allocate() {
+            if(size == Integer.MAX_VALUE) {
+                throw new IllegalStateException("Store is full");
+            }
+            
+            if((size >>> CHUNK_BITS) == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunks.length + 1);
+                chunks[chunks.length - 1] = ByteBuffer
+                        .allocateDirect(1 << (CHUNK_BITS + RECORD_BITS))
+                        .order(ByteOrder.nativeOrder());
+            }
+            
+            setParent(size, -1);
+            setFirstChild(size, -1);
+            setLastChild(size, -1);
+            setNextSibling(size, -1);
+            setChildCount(size, 0);
+            setPosition(size, 0);
+            setData(size, 0);
+            return size++;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int parent(int node) {
+            return chunk(node).getInt(offset(node, PARENT));
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int firstChild(int node) {
+            return chunk(node).getInt(offset(node, FIRST_CHILD));
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int lastChild(int node) {
+            return chunk(node).getInt(offset(node, LAST_CHILD));
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int nextSibling(int node) {
+            return chunk(node).getInt(offset(node, NEXT_SIBLING));
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int childCount(int node) {
+            return chunk(node).getInt(offset(node, CHILD_COUNT));
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int position(int node) {
+            return chunk(node).getInt(offset(node, POSITION));
+        }
+        
+        /**
+         * Returns the data of the given node.
+         * 
+         * @param node number of the node
+         * @return data of the node
+         */
+        public long getData(int node) {
+            return chunk(node).getLong(offset(node, DATA));
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void setParent(int node, int parent) {
+            chunk(node).putInt(offset(node, PARENT), parent);
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void setFirstChild(int node, int child) {
+            chunk(node).putInt(offset(node, FIRST_CHILD), child);
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void setLastChild(int node, int child) {
+            chunk(node).putInt(offset(node, LAST_CHILD), child);
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void setNextSibling(int node, int sibling) {
+            chunk(node).putInt(offset(node, NEXT_SIBLING), sibling);
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void setChildCount(int node, int count) {
+            chunk(node).putInt(offset(node, CHILD_COUNT), count);
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void setPosition(int node, int position) {
+            chunk(node).putInt(offset(node, POSITION), position);
+        }
+        
+        /**
+         * Sets the data of the given node.
+         * 
+         * @param node number of the node
+         * @param data data of the node
+         */
+        public void setData(int node, long data) {
+            chunk(node).putLong(offset(node, DATA), data);
+        }
+    }
+}
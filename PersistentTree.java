@@ -0,0 +1,449 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2019 Sebastian Gössl
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+
+
+package tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+
+
+/**
+ * Immutable tree whose modifications return new versions.
+ * A modification copies only the nodes on the path from the root down to
+ * the modified node and shares all other sub trees with the previous
+ * version, so every version stays valid and keeping many versions is
+ * cheap.
+ * Nodes have no link to their parent, which is what allows a sub tree to
+ * be shared by many versions and many parents. Nodes are therefore
+ * addressed by their path from the root: the index of the child to descend
+ * into on every level, where the empty path denotes the root itself.
+ * 
+ * @author Sebastian Gössl
+ * @version 1.0 17.10.2026
+ * @param <T> data type the tree stores
+ */
+public final class PersistentTree<T> {
+    
+    /**
+     * Children of a leaf node, shared by all nodes.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final PersistentTree[] NO_CHILDREN = new PersistentTree[0];
+    
+    
+    /**
+     * Data of this node.
+     */
+    private final T data;
+    /**
+     * Children of this node, the array is never modified.
+     */
+    private final PersistentTree<T>[] children;
+    /**
+     * Number of nodes in the sub tree of this node, including this node.
+     */
+    private final int size;
+    /**
+     * Number of edges on the longest path from this node down to a leaf.
+     */
+    private final int height;
+    
+    
+    
+    /**
+     * Constructs a new leaf node with the given data.
+     * 
+     * @param data data of this node
+     */
+    @SuppressWarnings("unchecked")
+    public PersistentTree(T data) {
+        this(data, NO_CHILDREN);
+    }
+    
+    /**
+     * Constructs a new node and grows a sub tree with the given function.
+     * The function is applied on every node recursively and every returned
+     * data object of the iterable is added as a new child node.
+     * 
+     * @param data data of the this node
+     * @param grow growth function
+     */
+    public PersistentTree(T data, Function<T, Iterable<T>> grow) {
+        this(data, grow(data, grow));
+    }
+    
+    /**
+     * Constructs a new node with the given data and children.
+     * 
+     * @param data data of this node
+     * @param children children of this node, the array is not copied
+     */
+    private PersistentTree(T data, PersistentTree<T>[] children) {
+        this.data = data;
+        this.children = children;
+        
+        int size = 1;
+        int height = 0;
+        for(PersistentTree<T> child : children) {
+            size += child.size;
+            height = Math.max(height, child.height + 1);
+        }
+        this.size = size;
+        this.height = height;
+    }
+    
+    /**
+     * Grows the children of a node with the given function.
+     * 
+     * @param data data of the node
+     * @param grow growth function
+     * @return grown children
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> PersistentTree<T>[] grow(T data,
+            Function<T, Iterable<T>> grow) {
+        final List<PersistentTree<T>> children = new ArrayList<>();
+        for(T child : grow.apply(data)) {
+            children.add(new PersistentTree<>(child, grow));
+        }
+        return children.toArray(new PersistentTree[children.size()]);
+    }
+    
+    /**
+     * Returns a persistent copy of the given tree.
+     * Lazily grown trees are expanded completely.
+     * 
+     * @param <T> data type the tree stores
+     * @param root root of the tree to be copied
+     * @return persistent copy of the tree
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentTree<T> of(Tree<T> root) {
+        //Copied sub trees whose parent has not been copied yet
+        final List<PersistentTree<T>> copied = new ArrayList<>();
+        
+        root.postOrder((node) -> {
+            final List<PersistentTree<T>> children = copied.subList(
+                    copied.size() - node.getChildCount(), copied.size());
+            final PersistentTree<T> copy = new PersistentTree<>(
+                    node.getData(), children.isEmpty() ? NO_CHILDREN
+                            : children.toArray(
+                                    new PersistentTree[children.size()]));
+            children.clear();
+            copied.add(copy);
+        });
+        
+        return copied.get(0);
+    }
+    
+    
+    
+    /**
+     * Returns the data of this node.
+     * 
+     * @return data of this node
+     */
+    public T getData() {
+        return data;
+    }
+    
+    /**
+     * Returns the children of this node.
+     * 
+     * @return children of this node
+     */
+    public List<PersistentTree<T>> getChildren() {
+        return Collections.unmodifiableList(Arrays.asList(children));
+    }
+    
+    /**
+     * Returns the child at the given index.
+     * 
+     * @param index index of the child
+     * @return child at the index
+     */
+    public PersistentTree<T> getChildAt(int index) {
+        return children[index];
+    }
+    
+    /**
+     * Returns the number of children of this node.
+     * 
+     * @return number of children of this node
+     */
+    public int getChildCount() {
+        return children.length;
+    }
+    
+    /**
+     * Returns if this is a leaf node (which means that this node has no
+     * children).
+     * 
+     * @return if this is a leaf node
+     */
+    public boolean isLeaf() {
+        return children.length == 0;
+    }
+    
+    /**
+     * Returns the number of nodes in the sub tree of this node, including
+     * this node.
+     * 
+     * @return number of nodes in the sub tree of this node
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Returns the height of this node, which is the number of edges on the
+     * longest path from this node down to a leaf.
+     * 
+     * @return height of this node
+     */
+    public int height() {
+        return height;
+    }
+    
+    /**
+     * Returns the node at the given path.
+     * 
+     * @param path indices of the children to descend into
+     * @return node at the path
+     */
+    public PersistentTree<T> get(int... path) {
+        PersistentTree<T> node = this;
+        for(int index : path) {
+            node = node.children[index];
+        }
+        return node;
+    }
+    
+    
+    
+    /**
+     * Returns a new version of this tree in which a new child node with the
+     * given data is added to the node at the given path.
+     * 
+     * @param path path of the node to add the child to
+     * @param child data of the child to be added
+     * @return root of the new version
+     */
+    public PersistentTree<T> add(int[] path, T child) {
+        return add(path, new PersistentTree<>(child));
+    }
+    
+    /**
+     * Returns a new version of this tree in which the given sub tree is
+     * added as a new child to the node at the given path.
+     * The sub tree is shared, not copied.
+     * 
+     * @param path path of the node to add the child to
+     * @param child sub tree to be added
+     * @return root of the new version
+     */
+    public PersistentTree<T> add(int[] path, PersistentTree<T> child) {
+        return update(path, path.length, (node) -> {
+            final PersistentTree<T>[] children =
+                    Arrays.copyOf(node.children, node.children.length + 1);
+            children[node.children.length] = child;
+            return new PersistentTree<>(node.data, children);
+        });
+    }
+    
+    /**
+     * Returns a new version of this tree in which the node at the given path
+     * is removed together with its sub tree.
+     * 
+     * @param path path of the node to be removed, must not be empty
+     * @return root of the new version
+     */
+    public PersistentTree<T> remove(int... path) {
+        if(path.length == 0) {
+            throw new IllegalArgumentException("Cannot remove the root node");
+        }
+        
+        final int index = path[path.length - 1];
+        return update(path, path.length - 1, (node) -> {
+            if(index < 0 || index >= node.children.length) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+            
+            final PersistentTree<T>[] children =
+                    Arrays.copyOf(node.children, node.children.length - 1);
+            System.arraycopy(node.children, index + 1, children, index,
+                    node.children.length - index - 1);
+            return new PersistentTree<>(node.data, children);
+        });
+    }
+    
+    /**
+     * Returns a new version of this tree in which the node at the given path
+     * holds the given data.
+     * 
+     * @param path path of the node to be changed
+     * @param data new data of the node
+     * @return root of the new version
+     */
+    public PersistentTree<T> set(int[] path, T data) {
+        return update(path, path.length,
+                (node) -> new PersistentTree<>(data, node.children));
+    }
+    
+    /**
+     * Returns a new version of this tree in which the node at the given path
+     * is replaced by the given sub tree.
+     * 
+     * @param path path of the node to be replaced
+     * @param node sub tree to replace the node with
+     * @return root of the new version
+     */
+    public PersistentTree<T> replace(int[] path, PersistentTree<T> node) {
+        return update(path, path.length, (old) -> node);
+    }
+    
+    /**
+     * Copies the path from this node down to the node at the first given
+     * number of indices of the given path, replacing that node with the
+     * changed one.
+     * 
+     * @param path path of the node to be changed
+     * @param length number of indices of the path to be used
+     * @param change function that returns the changed node
+     * @return root of the new version
+     */
+    @SuppressWarnings("unchecked")
+    private PersistentTree<T> update(int[] path, int length,
+            UnaryOperator<PersistentTree<T>> change) {
+        final PersistentTree<T>[] nodes = new PersistentTree[length + 1];
+        nodes[0] = this;
+        for(int i=0; i<length; i++) {
+            final PersistentTree<T>[] children = nodes[i].children;
+            if(path[i] < 0 || path[i] >= children.length) {
+                throw new IndexOutOfBoundsException("Index: " + path[i]);
+            }
+            nodes[i+1] = children[path[i]];
+        }
+        
+        PersistentTree<T> node = change.apply(nodes[length]);
+        for(int i=length-1; i>=0; i--) {
+            final PersistentTree<T>[] children = nodes[i].children.clone();
+            children[path[i]] = node;
+            node = new PersistentTree<>(nodes[i].data, children);
+        }
+        return node;
+    }
+    
+    
+    
+    /**
+     * Performs the given action for each node in this tree in pre-order.
+     * It is first performed for this node and then for its children
+     * recursively and therefore for the whole tree.
+     * 
+     * @param action to be performed for every node in pre-order
+     */
+    @SuppressWarnings("unchecked")
+    public void preOrder(Consumer<? super PersistentTree<T>> action) {
+        PersistentTree<T>[] stack = new PersistentTree[16];
+        int size = 0;
+        
+        stack[size++] = this;
+        while(size > 0) {
+            final PersistentTree<T> node = stack[--size];
+            stack[size] = null;
+            action.accept(node);
+            
+            if(size + node.children.length > stack.length) {
+                stack = Arrays.copyOf(stack,
+                        Math.max(2*stack.length, size + node.children.length));
+            }
+            for(int i=node.children.length-1; i>=0; i--) {
+                stack[size++] = node.children[i];
+            }
+        }
+    }
+    
+    /**
+     * Returns a mutable copy of this tree.
+     * 
+     * @return mutable copy of this tree
+     */
+    @SuppressWarnings("unchecked")
+    public Tree<T> toTree() {
+        final Tree<T> root = new Tree<>(data);
+        
+        //Nodes on the path from the root whose children are still copied
+        PersistentTree<T>[] nodes = new PersistentTree[16];
+        Tree<T>[] copies = new Tree[16];
+        int[] next = new int[16];
+        int size = 0;
+        
+        nodes[0] = this;
+        copies[0] = root;
+        size++;
+        while(size > 0) {
+            final PersistentTree<T> node = nodes[size-1];
+            if(next[size-1] == node.children.length) {  //Sub tree complete
+                final Tree<T> copy = copies[--size];
+                nodes[size] = null;
+                copies[size] = null;
+                if(size > 0) {
+                    copies[size-1].attach(copy);
+                }
+                continue;
+            }
+            
+            final PersistentTree<T> child = node.children[next[size-1]++];
+            if(size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2*size);
+                copies = Arrays.copyOf(copies, 2*size);
+                next = Arrays.copyOf(next, 2*size);
+            }
+            nodes[size] = child;
+            copies[size] = copies[size-1].newChild(child.data);
+            next[size] = 0;
+            size++;
+        }
+        
+        return root;
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.valueOf(data);
+    }
+}
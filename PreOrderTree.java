@@ -0,0 +1,497 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2019 Sebastian Gössl
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+
+
+package tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.IntConsumer;
+import javax.swing.tree.TreeNode;
+
+
+
+/**
+ * Base of read only trees whose nodes are numbered in pre-order.
+ * The sub tree of every node is the range of nodes from itself to itself
+ * plus its size, so the structure is fully described by the parent, the
+ * next sibling and the size of every node. This class implements the
+ * traversals and the {@link Node} views on top of these accessors, the
+ * subclasses only decide where they are stored.
+ * No list of children is kept, so the views reach the children of a node
+ * by skipping from sibling to sibling. Getting a child by its index or the
+ * index of a child takes time proportional to the index and counting the
+ * children takes time proportional to their number, which makes a JTree
+ * on nodes with very many children slow.
+ * 
+ * @author Sebastian Gössl
+ * @version 1.0 17.10.2026
+ * @param <T> data type the tree stores
+ * @see FrozenTree
+ * @see MappedTree
+ */
+abstract class PreOrderTree<T> {
+    
+    /**
+     * Returns the number of nodes in this tree.
+     * 
+     * @return number of nodes in this tree
+     */
+    public abstract int size();
+    
+    /**
+     * Returns the data of the given node.
+     * 
+     * @param node number of the node
+     * @return data of the node
+     */
+    public abstract T getData(int node);
+    
+    /**
+     * Returns the parent of the given node.
+     * 
+     * @param node number of the node
+     * @return number of the parent node or -1 for the root node
+     */
+    public abstract int getParent(int node);
+    
+    /**
+     * Returns the next sibling of the given node.
+     * 
+     * @param node number of the node
+     * @return number of the next sibling or -1 if the node is the last
+     * child of its parent or the root node
+     */
+    public abstract int getNextSibling(int node);
+    
+    /**
+     * Returns the number of nodes in the sub tree of the given node,
+     * including the node.
+     * 
+     * @param node number of the node
+     * @return number of nodes in the sub tree of the node
+     */
+    public abstract int getSize(int node);
+    
+    
+    /**
+     * Returns the first child of the given node.
+     * 
+     * @param node number of the node
+     * @return number of the first child or -1 if the node is a leaf
+     */
+    public int getFirstChild(int node) {
+        return (getSize(node) > 1) ? node + 1 : -1;
+    }
+    
+    /**
+     * Returns a view of the root node.
+     * 
+     * @return view of the root node
+     */
+    public Node getRoot() {
+        return getNode(0);
+    }
+    
+    /**
+     * Returns a view of the given node.
+     * 
+     * @param node number of the node
+     * @return view of the node
+     */
+    public Node getNode(int node) {
+        if(node < 0 || node >= size()) {
+            throw new IndexOutOfBoundsException("Node: " + node);
+        }
+        
+        return new Node(node);
+    }
+    
+    
+    /**
+     * Performs the given action for the number of each node in pre-order.
+     * This is a sequential scan over the nodes.
+     * 
+     * @param action to be performed for every node in pre-order
+     */
+    public void preOrder(IntConsumer action) {
+        final int size = size();
+        for(int i=0; i<size; i++) {
+            action.accept(i);
+        }
+    }
+    
+    /**
+     * Performs the given action for the number of each node in post-order.
+     * The nodes are scanned sequentially and every node is performed on
+     * as soon as its sub tree has been passed.
+     * 
+     * @param action to be performed for every node in post-order
+     */
+    public void postOrder(IntConsumer action) {
+        final int size = size();
+        int[] path = new int[16];
+        int depth = 0;
+        
+        for(int i=0; i<size; i++) {
+            while(depth > 0 && i >= path[depth-1] + getSize(path[depth-1])) {
+                action.accept(path[--depth]);
+            }
+            if(depth == path.length) {
+                path = Arrays.copyOf(path, 2*depth);
+            }
+            path[depth++] = i;
+        }
+        while(depth > 0) {
+            action.accept(path[--depth]);
+        }
+    }
+    
+    
+    
+    /**
+     * Numbering of the nodes of a {@link Tree} in pre-order, which yields
+     * the parent, the next sibling and the size of every node in the layout
+     * of a pre-order tree.
+     * 
+     * @param <T> data type of the tree
+     */
+    static final class Numbering<T> {
+        /**
+         * Root node of the numbered tree.
+         */
+        private final Tree<T> root;
+        /**
+         * Nodes of the tree in pre-order.
+         */
+        private final Iterator<Tree<T>> nodes;
+        /**
+         * Last numbered node for every depth relative to the root node.
+         */
+        private final int[] path;
+        /**
+         * Current node.
+         */
+        private Tree<T> node;
+        /**
+         * Number of the current node.
+         */
+        private int number = -1;
+        /**
+         * Number of the parent of the current node.
+         */
+        private int parent;
+        /**
+         * Number of the next sibling of the current node.
+         */
+        private int nextSibling;
+        
+        
+        
+        /**
+         * Constructs a new numbering of the given tree.
+         * The tree must not have lazily grown nodes that have not been
+         * expanded.
+         * 
+         * @param root root of the tree to be numbered
+         */
+        public Numbering(Tree<T> root) {
+            this.root = root;
+            nodes = root.iterator();
+            path = new int[root.height() + 1];
+        }
+        
+        
+        
+        /**
+         * Advances to the next node in pre-order.
+         * 
+         * @return if there was another node
+         */
+        public boolean next() {
+            if(!nodes.hasNext()) {
+                return false;
+            }
+            
+            node = nodes.next();
+            number++;
+            final int depth = node.depth() - root.depth();
+            path[depth] = number;
+            parent = (depth > 0) ? path[depth - 1] : -1;
+            
+            final Tree<T> parentNode = node.getParent();
+            final boolean last = depth == 0 || parentNode.getIndex(node)
+                    == parentNode.getChildCount() - 1;
+            nextSibling = last ? -1 : number + node.size();
+            return true;
+        }
+        
+        /**
+         * Returns the current node.
+         * 
+         * @return current node
+         */
+        public Tree<T> node() {
+            return node;
+        }
+        
+        /**
+         * Returns the number of the current node.
+         * 
+         * @return number of the current node
+         */
+        public int number() {
+            return number;
+        }
+        
+        /**
+         * Returns the number of the parent of the current node.
+         * 
+         * @return number of the parent or -1 for the root node
+         */
+        public int parent() {
+            return parent;
+        }
+        
+        /**
+         * Returns the number of the next sibling of the current node.
+         * 
+         * @return number of the next sibling or -1 if there is none
+         */
+        public int nextSibling() {
+            return nextSibling;
+        }
+        
+        /**
+         * Returns the number of nodes in the sub tree of the current node.
+         * 
+         * @return number of nodes in the sub tree of the current node
+         */
+        public int size() {
+            return node.size();
+        }
+    }
+    
+    /**
+     * View of a single node of a pre-order tree.
+     * It holds nothing but the number of the node and can therefore be
+     * created whenever needed. Its children are reached through the sibling
+     * links, so accessing them by index is not constant time.
+     */
+    public final class Node implements TreeNode {
+        
+        /**
+         * Number of this node.
+         */
+        private final int node;
+        
+        
+        
+        /**
+         * Constructs a new view of the given node.
+         * 
+         * @param node number of the node
+         */
+        private Node(int node) {
+            this.node = node;
+        }
+        
+        
+        
+        /**
+         * Returns the number of this node.
+         * 
+         * @return number of this node
+         */
+        public int getNumber() {
+            return node;
+        }
+        
+        /**
+         * Returns the data of this node.
+         * 
+         * @return data of this node
+         */
+        public T getData() {
+            return PreOrderTree.this.getData(node);
+        }
+        
+        /**
+         * Returns the children of this node.
+         * 
+         * @return children of this node
+         */
+        public List<Node> getChildren() {
+            final List<Node> children = new ArrayList<>();
+            for(int c=getFirstChild(node); c>=0; c=getNextSibling(c)) {
+                children.add(new Node(c));
+            }
+            return children;
+        }
+        
+        /**
+         * Returns if this is a root node.
+         * 
+         * @return if this is a root node
+         */
+        public boolean isRoot() {
+            return PreOrderTree.this.getParent(node) < 0;
+        }
+        
+        /**
+         * Returns the number of nodes in the sub tree of this node,
+         * including this node.
+         * 
+         * @return number of nodes in the sub tree of this node
+         */
+        public int size() {
+            return getSize(node);
+        }
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Node getParent() {
+            return isRoot()
+                    ? null : new Node(PreOrderTree.this.getParent(node));
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isLeaf() {
+            return getSize(node) == 1;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Node getChildAt(int childIndex) {
+            int c = getFirstChild(node);
+            for(int i=0; i<childIndex && c>=0; i++) {
+                c = getNextSibling(c);
+            }
+            
+            if(childIndex < 0 || c < 0) {
+                throw new IndexOutOfBoundsException("Index: " + childIndex);
+            }
+            return new Node(c);
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int getChildCount() {
+            int count = 0;
+            for(int c=getFirstChild(node); c>=0; c=getNextSibling(c)) {
+                count++;
+            }
+            return count;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int getIndex(TreeNode child) {
+            if(!(child instanceof PreOrderTree.Node)
+                    || ((PreOrderTree<?>.Node)child).tree()
+                            != PreOrderTree.this) {
+                return -1;
+            }
+            
+            final int target = ((PreOrderTree<?>.Node)child).node;
+            int i = 0;
+            for(int c=getFirstChild(node); c>=0; c=getNextSibling(c)) {
+                if(c == target) {
+                    return i;
+                }
+                i++;
+            }
+            return -1;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean getAllowsChildren() {
+            return true;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Enumeration<Node> children() {
+            return Collections.enumeration(getChildren());
+        }
+        
+        
+        /**
+         * Returns the tree this node belongs to.
+         * 
+         * @return tree this node belongs to
+         */
+        private PreOrderTree<T> tree() {
+            return PreOrderTree.this;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof PreOrderTree.Node
+                    && ((PreOrderTree<?>.Node)obj).tree() == PreOrderTree.this
+                    && ((PreOrderTree<?>.Node)obj).node == node;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return 31*System.identityHashCode(PreOrderTree.this) + node;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return String.valueOf(getData());
+        }
+    }
+}
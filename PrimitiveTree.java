@@ -0,0 +1,723 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2019 Sebastian Gössl
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+
+
+package tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import javax.swing.tree.TreeNode;
+
+
+
+/**
+ * Base class of the trees that store their nodes in a shared store instead
+ * of node objects.
+ * Every node is a number in the store, linked to its parent, first and last
+ * child and next sibling. An instance of this class is only a handle of
+ * such a node, so handles are created whenever needed and compared by their
+ * store and number. The data is kept by the subclasses in their stores,
+ * next to the links.
+ * Removed nodes stay in the store, their memory is not reused.
+ * Every node also keeps its position in the children of its parent, so
+ * {@link #getIndex(TreeNode)} takes constant time, and the store remembers
+ * the child it has returned last, so {@link #getChildAt(int)} takes
+ * constant time when the children are accessed in order, as a JTree does.
+ * Otherwise it walks the sibling links and takes time proportional to the
+ * index. Removing a child looks up its previous sibling the same way and
+ * renumbers the following children, so it takes time proportional to the
+ * number of children.
+ * 
+ * @author Sebastian Gössl
+ * @version 1.0 17.10.2026
+ * @param <N> type of the node handles
+ * @param <S> type of the store
+ */
+abstract class PrimitiveTree<N extends PrimitiveTree<N, S>,
+        S extends PrimitiveTree.Store> implements TreeNode, Iterable<N> {
+    
+    /**
+     * Store that holds this node.
+     */
+    protected final S store;
+    /**
+     * Number of this node in the store.
+     */
+    protected final int node;
+    
+    
+    
+    /**
+     * Constructs a new root node in the given store.
+     * 
+     * @param store store to hold the node
+     */
+    protected PrimitiveTree(S store) {
+        this(store, store.allocate());
+    }
+    
+    /**
+     * Constructs a new handle of the given node.
+     * 
+     * @param store store that holds the node
+     * @param node number of the node
+     */
+    protected PrimitiveTree(S store, int node) {
+        this.store = store;
+        this.node = node;
+    }
+    
+    
+    
+    /**
+     * Returns a handle of the given node of the same store.
+     * 
+     * @param node number of the node
+     * @return handle of the node
+     */
+    protected abstract N handle(int node);
+    
+    
+    /**
+     * Returns the parent of this node or null if this is a root node.
+     * 
+     * @return parent of this node or null if this is a root node
+     */
+    @Override
+    public N getParent() {
+        final int parent = store.parent(node);
+        return (parent >= 0) ? handle(parent) : null;
+    }
+    
+    /**
+     * Returns the children of this node.
+     * 
+     * @return children of this node
+     */
+    public List<N> getChildren() {
+        final List<N> children = new ArrayList<>(store.childCount(node));
+        for(int c=store.firstChild(node); c>=0; c=store.nextSibling(c)) {
+            children.add(handle(c));
+        }
+        return Collections.unmodifiableList(children);
+    }
+    
+    /**
+     * Returns if this is a root node.
+     * 
+     * @return if this is a root node
+     */
+    public boolean isRoot() {
+        return store.parent(node) < 0;
+    }
+    
+    /**
+     * Returns if this is a leaf node (which means that this node has no
+     * children).
+     * 
+     * @return if this is a leaf node
+     */
+    @Override
+    public boolean isLeaf() {
+        return store.childCount(node) == 0;
+    }
+    
+    
+    /**
+     * Removes the child with at given index.
+     * The removed child becomes the root node of its own tree.
+     * 
+     * @param index index of the child to be removed
+     * @return removed child node
+     */
+    public N remove(int index) {
+        final int child = store.childAt(node, index);
+        if(child < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        
+        store.unlink(child);
+        return handle(child);
+    }
+    
+    
+    /**
+     * Returns the next node after the given one in the pre-order of the sub
+     * tree of this node.
+     * No stack is needed, as the links lead back up to this node.
+     * 
+     * @param current number of the current node
+     * @return number of the next node or -1 if the traversal is finished
+     */
+    protected final int nextPreOrder(int current) {
+        final int child = store.firstChild(current);
+        if(child >= 0) {
+            return child;
+        }
+        
+        for(int n=current; n!=node; n=store.parent(n)) {
+            final int sibling = store.nextSibling(n);
+            if(sibling >= 0) {
+                return sibling;
+            }
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Returns the first node in the post-order of the sub tree of this node.
+     * 
+     * @return number of the first node
+     */
+    protected final int firstPostOrder() {
+        return store.leftmostLeaf(node);
+    }
+    
+    /**
+     * Returns the next node after the given one in the post-order of the sub
+     * tree of this node.
+     * 
+     * @param current number of the current node
+     * @return number of the next node or -1 if the traversal is finished
+     */
+    protected final int nextPostOrder(int current) {
+        if(current == node) {
+            return -1;
+        }
+        
+        final int sibling = store.nextSibling(current);
+        return (sibling >= 0) ? store.leftmostLeaf(sibling)
+                : store.parent(current);
+    }
+    
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public N getChildAt(int childIndex) {
+        final int child = store.childAt(node, childIndex);
+        if(child < 0) {
+            throw new IndexOutOfBoundsException("Index: " + childIndex);
+        }
+        
+        return handle(child);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getChildCount() {
+        return store.childCount(node);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getIndex(TreeNode child) {
+        if(!(child instanceof PrimitiveTree)
+                || ((PrimitiveTree<?, ?>)child).store != store) {
+            return -1;
+        }
+        
+        final int target = ((PrimitiveTree<?, ?>)child).node;
+        return (store.parent(target) == node) ? store.position(target) : -1;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean getAllowsChildren() {
+        return true;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Enumeration<N> children() {
+        return Collections.enumeration(getChildren());
+    }
+    
+    
+    /**
+     * Returns a iterator that traverses this tree in pre-order.
+     * 
+     * @return iterator that traverses this tree in pre-order
+     */
+    @Override
+    public Iterator<N> iterator() {
+        return new PreOrderIterator();
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof PrimitiveTree
+                && ((PrimitiveTree<?, ?>)obj).store == store
+                && ((PrimitiveTree<?, ?>)obj).node == node;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return 31*System.identityHashCode(store) + node;
+    }
+    
+    
+    
+    /**
+     * Iterator that iterates over the sub tree of this node in pre-order by
+     * following the links of the store.
+     */
+    private class PreOrderIterator implements Iterator<N> {
+        /**
+         * Number of the node to be returned next or -1 if the traversal is
+         * finished.
+         */
+        private int next = node;
+        
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasNext() {
+            return next >= 0;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public N next() {
+            if(next < 0) {
+                throw new NoSuchElementException();
+            }
+            
+            final int current = next;
+            next = nextPreOrder(current);
+            return handle(current);
+        }
+    }
+    
+    /**
+     * Store of the links between the nodes of a tree.
+     * Implementations decide where the links and the data are kept.
+     */
+    abstract static class Store {
+        
+        /**
+         * Child that has last been returned by {@link #childAt(int, int)}.
+         * Its following siblings are reached from it, so the children of a
+         * node are returned in constant time when accessed in order.
+         */
+        private int cursor = -1;
+        
+        
+        
+        /**
+         * Allocates a new unlinked node.
+         * 
+         * @return number of the new node
+         */
+        public abstract int allocate();
+        
+        /**
+         * Returns the parent of the given node.
+         * 
+         * @param node number of the node
+         * @return number of the parent or -1 for a root node
+         */
+        public abstract int parent(int node);
+        
+        /**
+         * Returns the first child of the given node.
+         * 
+         * @param node number of the node
+         * @return number of the first child or -1 for a leaf node
+         */
+        public abstract int firstChild(int node);
+        
+        /**
+         * Returns the last child of the given node.
+         * 
+         * @param node number of the node
+         * @return number of the last child or -1 for a leaf node
+         */
+        public abstract int lastChild(int node);
+        
+        /**
+         * Returns the next sibling of the given node.
+         * 
+         * @param node number of the node
+         * @return number of the next sibling or -1 for a last child
+         */
+        public abstract int nextSibling(int node);
+        
+        /**
+         * Returns the number of children of the given node.
+         * 
+         * @param node number of the node
+         * @return number of children
+         */
+        public abstract int childCount(int node);
+        
+        /**
+         * Returns the position of the given node in the children of its
+         * parent.
+         * 
+         * @param node number of the node
+         * @return index of the node in the children of its parent
+         */
+        public abstract int position(int node);
+        
+        /**
+         * Sets the parent of the given node.
+         * 
+         * @param node number of the node
+         * @param parent number of the parent or -1
+         */
+        protected abstract void setParent(int node, int parent);
+        
+        /**
+         * Sets the first child of the given node.
+         * 
+         * @param node number of the node
+         * @param child number of the first child or -1
+         */
+        protected abstract void setFirstChild(int node, int child);
+        
+        /**
+         * Sets the last child of the given node.
+         * 
+         * @param node number of the node
+         * @param child number of the last child or -1
+         */
+        protected abstract void setLastChild(int node, int child);
+        
+        /**
+         * Sets the next sibling of the given node.
+         * 
+         * @param node number of the node
+         * @param sibling number of the next sibling or -1
+         */
+        protected abstract void setNextSibling(int node, int sibling);
+        
+        /**
+         * Sets the number of children of the given node.
+         * 
+         * @param node number of the node
+         * @param count number of children
+         */
+        protected abstract void setChildCount(int node, int count);
+        
+        /**
+         * Sets the position of the given node in the children of its parent.
+         * 
+         * @param node number of the node
+         * @param position index of the node in the children of its parent
+         */
+        protected abstract void setPosition(int node, int position);
+        
+        
+        /**
+         * Allocates a new node and appends it to the children of the given
+         * node.
+         * 
+         * @param parent number of the parent node
+         * @return number of the new node
+         */
+        public int allocate(int parent) {
+            final int node = allocate();
+            final int last = lastChild(parent);
+            
+            setParent(node, parent);
+            setPosition(node, childCount(parent));
+            if(last >= 0) {
+                setNextSibling(last, node);
+            } else {
+                setFirstChild(parent, node);
+            }
+            setLastChild(parent, node);
+            setChildCount(parent, childCount(parent) + 1);
+            
+            return node;
+        }
+        
+        /**
+         * Removes the given node from the children of its parent and updates
+         * the positions of the following children.
+         * 
+         * @param node number of the node
+         */
+        public void unlink(int node) {
+            final int parent = parent(node);
+            final int previous = childAt(parent, position(node) - 1);
+            for(int c=nextSibling(node); c>=0; c=nextSibling(c)) {
+                setPosition(c, position(c) - 1);
+            }
+            
+            if(previous >= 0) {
+                setNextSibling(previous, nextSibling(node));
+            } else {
+                setFirstChild(parent, nextSibling(node));
+            }
+            if(lastChild(parent) == node) {
+                setLastChild(parent, previous);
+            }
+            setChildCount(parent, childCount(parent) - 1);
+            
+            setParent(node, -1);
+            setNextSibling(node, -1);
+            setPosition(node, 0);
+        }
+        
+        /**
+         * Returns the child at the given index.
+         * The children are walked from the first child or, if it is not
+         * behind the index, from the child that has been returned last.
+         * 
+         * @param node number of the node
+         * @param index index of the child
+         * @return number of the child or -1 if there is no such child
+         */
+        public int childAt(int node, int index) {
+            final int count = childCount(node);
+            if(index < 0 || index >= count) {
+                return -1;
+            }
+            if(index == count - 1) {
+                return lastChild(node);
+            }
+            
+            int c = cursor;
+            if(c < 0 || parent(c) != node || position(c) > index) {
+                c = firstChild(node);
+            }
+            while(position(c) < index) {
+                c = nextSibling(c);
+            }
+            cursor = c;
+            return c;
+        }
+        
+        /**
+         * Returns the leftmost leaf of the sub tree of the given node, which
+         * is reached by following the first children.
+         * 
+         * @param node number of the node
+         * @return number of the leftmost leaf
+         */
+        public int leftmostLeaf(int node) {
+            for(int c=firstChild(node); c>=0; c=firstChild(c)) {
+                node = c;
+            }
+            return node;
+        }
+    }
+    
+    /**
+     * Store that keeps the links in int arrays on the heap.
+     * Subclasses add the arrays for the data and resize them together with
+     * the links.
+     */
+    static class ArrayStore extends Store {
+        /**
+         * Parent of every node or -1 for root nodes.
+         */
+        private int[] parents = new int[0];
+        /**
+         * First child of every node or -1 for leaf nodes.
+         */
+        private int[] firstChildren = new int[0];
+        /**
+         * Last child of every node or -1 for leaf nodes.
+         */
+        private int[] lastChildren = new int[0];
+        /**
+         * Next sibling of every node or -1 for last children.
+         */
+        private int[] nextSiblings = new int[0];
+        /**
+         * Number of children of every node.
+         */
+        private int[] childCounts = new int[0];
+        /**
+         * Position of every node in the children of its parent.
+         */
+        private int[] positions = new int[0];
+        /**
+         * Number of allocated nodes.
+         */
+        private int size;
+        
+        
+        
+        /**
+         * Resizes all arrays to the given capacity.
+         * 
+         * @param capacity new capacity
+         */
+        protected void resize(int capacity) {
+            parents = Arrays.copyOf(parents, capacity);
+            firstChildren = Arrays.copyOf(firstChildren, capacity);
+            lastChildren = Arrays.copyOf(lastChildren, capacity);
+            nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+            childCounts = Arrays.copyOf(childCounts, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int allocate() {
+            if(size == parents.length) {
+                resize(Math.max(16, 2*size));
+            }
+            
+            parents[size] = -1;
+            firstChildren[size] = -1;
+            lastChildren[size] = -1;
+            nextSiblings[size] = -1;
+            childCounts[size] = 0;
+            positions[size] = 0;
+            return size++;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int parent(int node) {
+            return parents[node];
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int firstChild(int node) {
+            return firstChildren[node];
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int lastChild(int node) {
+            return lastChildren[node];
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int nextSibling(int node) {
+            return nextSiblings[node];
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int childCount(int node) {
+            return childCounts[node];
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int position(int node) {
+            return positions[node];
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void setParent(int node, int parent) {
+            parents[node] = parent;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void setFirstChild(int node, int child) {
+            firstChildren[node] = child;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void setLastChild(int node, int child) {
+            lastChildren[node] = child;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void setNextSibling(int node, int sibling) {
+            nextSiblings[node] = sibling;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void setChildCount(int node, int count) {
+            childCounts[node] = count;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void setPosition(int node, int position) {
+            positions[node] = position;
+        }
+    }
+}
@@ -26,13 +26,34 @@
 
 package tree;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.swing.tree.TreeNode;
 
 
@@ -41,11 +62,22 @@ import javax.swing.tree.TreeNode;
  * TreeNode class used to store and generate tree like data structures.
  * 
  * @author Sebastian Gössl
- * @version 1.1 21.2.2020
+ * @version 1.2 17.10.2026
  * @param <T> data type the TreeNode should store
  */
 public class Tree<T> implements TreeNode, Iterable<Tree<T>> {
     
+    /**
+     * Number of children from which on lookups by data use a hash index.
+     */
+    private static final int LOOKUP_THRESHOLD = 32;
+    /**
+     * Number of nodes up to which sub trees are folded sequentially by
+     * {@link #foldParallel(Function, BiFunction)}.
+     */
+    public static final int FOLD_THRESHOLD = 1024;
+    
+    
     /**
      * Data of this node.
      */
@@ -58,6 +90,45 @@ public class Tree<T> implements TreeNode, Iterable<Tree<T>> {
      * Children nodes.
      */
     private final List<Tree<T>> children = new ArrayList<>();
+    /**
+     * Growth function if this node was grown lazily and its children have
+     * not been created yet, otherwise null.
+     */
+    private Function<T, Iterable<T>> grow;
+    /**
+     * Position of this node in the children of its parent or -1 if it is
+     * not a child of its parent (anymore).
+     */
+    private int index = -1;
+    /**
+     * Hash index from the data of the children to the children holding it,
+     * or null if it has not been built.
+     * A value is either the only child holding the data or a list of all
+     * children holding it, in the order of their positions.
+     */
+    private Map<T, Object> lookup;
+    /**
+     * Number of edges between this node and its root node.
+     */
+    private final int depth;
+    /**
+     * Number of nodes in the sub tree of this node, including this node.
+     */
+    private int size = 1;
+    /**
+     * Number of edges on the longest path from this node down to a leaf.
+     */
+    private int height;
+    /**
+     * Number of lazily grown nodes in the sub tree of this node whose
+     * children have not been created yet.
+     */
+    private int unexpanded;
+    /**
+     * If the growth of this node has been stopped by a budget before all of
+     * its children were created.
+     */
+    private boolean truncated;
     
     
     
@@ -92,6 +163,7 @@ public class Tree<T> implements TreeNode, Iterable<Tree<T>> {
     private Tree(Tree<T> parent, T data) {
         this.parent = parent;
         this.data = data;
+        this.depth = (parent != null) ? parent.depth + 1 : 0;
     }
     
     /**
@@ -111,6 +183,351 @@ public class Tree<T> implements TreeNode, Iterable<Tree<T>> {
         grow.apply(data).forEach((child) -> add(child, grow));
     }
     
+    /**
+     * Constructs a new node with the given parent node and grows a sub
+     * tree with the given function, leaving out every child that does not
+     * satisfy the given predicate.
+     * The predicate is tested on a child right before its sub tree would be
+     * grown, after the sub trees of its preceding siblings.
+     * 
+     * @param parent parent node of this node
+     * @param data data of the this node
+     * @param grow growth function
+     * @param keep predicate that a child must satisfy to be grown
+     */
+    private Tree(Tree<T> parent, T data,
+            Function<T, Iterable<T>> grow, Predicate<? super T> keep) {
+        
+        this(parent, data);
+        for(T child : grow.apply(data)) {
+            if(keep.test(child)) {
+                attach(new Tree<>(this, child, grow, keep));
+            }
+        }
+    }
+    
+    /**
+     * Constructs a new root node whose sub tree is grown lazily with the
+     * given function.
+     * The function is applied on a node only when its children are accessed
+     * for the first time, so only the explored part of the tree is ever
+     * created. Lazily grown trees are not thread safe, not even for
+     * concurrent reads.
+     * 
+     * @param <T> data type of the tree
+     * @param data data of the root node
+     * @param grow growth function
+     * @return the new lazily grown tree
+     */
+    public static <T> Tree<T> growLazy(T data,
+            Function<T, Iterable<T>> grow) {
+        
+        final Tree<T> root = new Tree<>(data);
+        root.grow = grow;
+        root.unexpanded = 1;
+        return root;
+    }
+    
+    /**
+     * Constructs a new root node and grows a sub tree with the given function
+     * in parallel.
+     * Sibling sub trees are grown as separate tasks in the common
+     * {@link ForkJoinPool} as long as the pool is not already saturated with
+     * queued tasks. The resulting tree is identical to the one constructed by
+     * {@link #Tree(Object, Function)}, including the order of the children.
+     * The function may be called concurrently and therefore must be thread
+     * safe.
+     * 
+     * @param <T> data type of the tree
+     * @param data data of the root node
+     * @param grow growth function
+     * @return the newly grown tree
+     */
+    public static <T> Tree<T> growParallel(T data,
+            Function<T, Iterable<T>> grow) {
+        
+        return growParallel(data, grow, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Constructs a new root node and grows a sub tree with the given function
+     * in parallel.
+     * Sibling sub trees are grown as separate tasks in the common
+     * {@link ForkJoinPool}, but only for nodes above the given cutoff depth
+     * and only as long as the pool is not already saturated with queued
+     * tasks. Everything below is grown sequentially. The resulting tree is
+     * identical to the one constructed by {@link #Tree(Object, Function)},
+     * including the order of the children.
+     * The function may be called concurrently and therefore must be thread
+     * safe.
+     * 
+     * @param <T> data type of the tree
+     * @param data data of the root node
+     * @param grow growth function
+     * @param cutoff depth from which on sub trees are grown sequentially
+     * (the root node has depth 0)
+     * @return the newly grown tree
+     */
+    public static <T> Tree<T> growParallel(T data,
+            Function<T, Iterable<T>> grow, int cutoff) {
+        
+        final Tree<T> root = new Tree<>(data);
+        ForkJoinPool.commonPool().invoke(
+                new GrowTask<>(root, grow, null, 0, cutoff));
+        return root;
+    }
+    
+    /**
+     * Constructs a new root node and grows a sub tree with the given function,
+     * leaving out every node that does not satisfy the given predicate
+     * together with its sub tree.
+     * The predicate is tested on every node right before its sub tree would
+     * be grown, after the sub trees of all of its preceding siblings have
+     * been grown. This makes it suitable for branch and bound searches whose
+     * predicate compares a node against a {@link Bound} that tightens during
+     * the growth. The root node is always kept.
+     * 
+     * @param <T> data type of the tree
+     * @param data data of the root node
+     * @param grow growth function
+     * @param keep predicate that a node must satisfy to be grown
+     * @return the newly grown tree
+     */
+    public static <T> Tree<T> growPruned(T data,
+            Function<T, Iterable<T>> grow, Predicate<? super T> keep) {
+        
+        return new Tree<>(null, data, grow, keep);
+    }
+    
+    /**
+     * Constructs a new root node and grows a sub tree with the given function
+     * in parallel, leaving out every node that does not satisfy the given
+     * predicate together with its sub tree.
+     * Sibling sub trees are grown as separate tasks like by
+     * {@link #growParallel(Object, Function, int)}. The predicate is tested on
+     * every node right before its sub tree would be grown, so a
+     * {@link Bound} tightened by one task prunes the nodes of all tasks that
+     * start later. The root node is always kept.
+     * Which nodes are pruned may therefore depend on the scheduling, but the
+     * remaining children keep their order.
+     * The function and the predicate may be called concurrently and
+     * therefore must be thread safe.
+     * 
+     * @param <T> data type of the tree
+     * @param data data of the root node
+     * @param grow growth function
+     * @param keep predicate that a node must satisfy to be grown
+     * @param cutoff depth from which on sub trees are grown sequentially
+     * (the root node has depth 0)
+     * @return the newly grown tree
+     */
+    public static <T> Tree<T> growParallel(T data,
+            Function<T, Iterable<T>> grow, Predicate<? super T> keep,
+            int cutoff) {
+        
+        final Tree<T> root = new Tree<>(data);
+        ForkJoinPool.commonPool().invoke(
+                new GrowTask<>(root, grow, keep, 0, cutoff));
+        return root;
+    }
+    
+    /**
+     * Constructs a new root node and grows a sub tree with the given function
+     * on the given executor.
+     * This is meant for growth functions that block, for example on I/O:
+     * every call of the function runs as a separate task, at most the given
+     * number of them at once, so the blocking calls overlap. On Java 21 and
+     * later an executor that starts a virtual thread per task is a good
+     * choice. The calling thread only assembles the tree, in the same order
+     * as {@link #Tree(Object, Function)} does, so the resulting tree is
+     * identical to the one constructed by it.
+     * The function may be called concurrently and therefore must be thread
+     * safe. If it throws an exception, the exception is rethrown and tasks
+     * that are already running are left to finish on their own.
+     * 
+     * @param <T> data type of the tree
+     * @param data data of the root node
+     * @param grow growth function
+     * @param executor executor that runs the calls of the growth function
+     * @param maxConcurrency maximum number of concurrent calls of the growth
+     * function
+     * @return the newly grown tree
+     * @throws InterruptedException if the calling thread is interrupted
+     * while waiting for the growth function
+     */
+    public static <T> Tree<T> growConcurrent(T data,
+            Function<T, Iterable<T>> grow, Executor executor,
+            int maxConcurrency) throws InterruptedException {
+        
+        if(maxConcurrency < 1) {
+            throw new IllegalArgumentException(
+                    "Illegal concurrency: " + maxConcurrency);
+        }
+        
+        final Tree<T> root = new Tree<>(data);
+        final CompletionService<GrowJob<T>> completion =
+                new ExecutorCompletionService<>(executor);
+        final ArrayDeque<GrowJob<T>> waiting = new ArrayDeque<>();
+        int running = 0;
+        
+        waiting.add(new GrowJob<>(root, null));
+        while(!waiting.isEmpty() || running > 0) {
+            while(running < maxConcurrency && !waiting.isEmpty()) {
+                final GrowJob<T> job = waiting.poll();
+                completion.submit(() -> job.fetch(grow));
+                running++;
+            }
+            
+            final GrowJob<T> job;
+            try {
+                job = completion.take().get();
+            } catch(ExecutionException ex) {
+                final Throwable cause = ex.getCause();
+                if(cause instanceof RuntimeException) {
+                    throw (RuntimeException)cause;
+                } else if(cause instanceof Error) {
+                    throw (Error)cause;
+                }
+                throw new IllegalStateException(cause);
+            }
+            running--;
+            
+            waiting.addAll(job.expand(job.fetched));
+        }
+        
+        return root;
+    }
+    
+    /**
+     * Constructs a new root node and grows a sub tree with the given function
+     * within the given budget.
+     * The tree is grown in level-order and growth stops when the next node
+     * would exceed a limit of the budget, so a misbehaving function cannot
+     * exhaust the memory. Nodes whose children have not been created (or not
+     * all of them) are marked as truncated. The children of nodes at the
+     * maximum depth are not grown at all, so these nodes are marked as
+     * truncated without calling the function on them.
+     * Every node is estimated to take {@link GrowthBudget#NODE_BYTES} bytes,
+     * not counting its data.
+     * 
+     * @param <T> data type of the tree
+     * @param data data of the root node
+     * @param grow growth function
+     * @param budget limits of the growth
+     * @return the newly grown tree
+     * @see #isTruncated()
+     */
+    public static <T> Tree<T> growBudgeted(T data,
+            Function<T, Iterable<T>> grow, GrowthBudget budget) {
+        
+        return growBudgeted(data, grow, budget, (d) -> 0);
+    }
+    
+    /**
+     * Constructs a new root node and grows a sub tree with the given function
+     * within the given budget.
+     * The tree is grown in level-order and growth stops when the next node
+     * would exceed a limit of the budget, so a misbehaving function cannot
+     * exhaust the memory. Nodes whose children have not been created (or not
+     * all of them) are marked as truncated. The children of nodes at the
+     * maximum depth are not grown at all, so these nodes are marked as
+     * truncated without calling the function on them.
+     * Every node is estimated to take {@link GrowthBudget#NODE_BYTES} bytes
+     * plus the estimated size of its data.
+     * 
+     * @param <T> data type of the tree
+     * @param data data of the root node
+     * @param grow growth function
+     * @param budget limits of the growth
+     * @param dataBytes estimated number of bytes of the data of a node
+     * @return the newly grown tree
+     * @see #isTruncated()
+     */
+    public static <T> Tree<T> growBudgeted(T data,
+            Function<T, Iterable<T>> grow, GrowthBudget budget,
+            ToLongFunction<? super T> dataBytes) {
+        
+        final Tree<T> root = new Tree<>(data);
+        long bytes = GrowthBudget.NODE_BYTES + dataBytes.applyAsLong(data);
+        
+        //Nodes in level-order and the number of children of every node,
+        //the children of a node directly follow the ones of its predecessor
+        final List<Tree<T>> nodes = new ArrayList<>();
+        int[] counts = new int[16];
+        nodes.add(root);
+        
+        int next = 0;
+        for(; next<nodes.size(); next++) {
+            final Tree<T> node = nodes.get(next);
+            if(next == counts.length) {
+                counts = Arrays.copyOf(counts, 2*next);
+            }
+            if(node.depth >= budget.getMaxDepth()) {
+                node.truncated = true;
+                continue;
+            }
+            
+            for(T child : grow.apply(node.data)) {
+                final long cost =
+                        GrowthBudget.NODE_BYTES + dataBytes.applyAsLong(child);
+                if(nodes.size() >= budget.getMaxNodes()
+                        || cost > budget.getMaxBytes() - bytes) {
+                    node.truncated = true;
+                    break;
+                }
+                
+                bytes += cost;
+                nodes.add(node.newChild(child));
+                counts[next]++;
+            }
+            if(node.truncated) {
+                next++;
+                break;
+            }
+        }
+        for(; next<nodes.size(); next++) {  //Never grown
+            nodes.get(next).truncated = true;
+        }
+        
+        //Attach bottom-up, so every node is attached to an unattached parent
+        int end = nodes.size();
+        for(int i=Math.min(counts.length, nodes.size())-1; i>=0; i--) {
+            final Tree<T> node = nodes.get(i);
+            for(int c=end-counts[i]; c<end; c++) {
+                node.attach(nodes.get(c));
+            }
+            end -= counts[i];
+        }
+        
+        return root;
+    }
+    
+    /**
+     * Grows a tree asynchronously with the given function, which returns
+     * the data of the children of a node as a future.
+     * The function is called for every node as soon as the node has been
+     * created and the tree is expanded as the futures complete, so no
+     * thread waits for the function. The children keep the order in which
+     * the function returns them, so the resulting tree is identical to the
+     * one constructed by {@link #Tree(Object, Function)} with the results of
+     * the futures.
+     * The function and the callbacks of its futures may be called
+     * concurrently. If the function throws an exception or one of its
+     * futures completes exceptionally, the returned future completes
+     * exceptionally with it and the growth stops.
+     * 
+     * @param <T> data type of the tree
+     * @param data data of the root node
+     * @param grow asynchronous growth function
+     * @return future of the newly grown tree
+     */
+    public static <T> CompletableFuture<Tree<T>> growAsync(T data,
+            Function<T, ? extends CompletionStage<
+                    ? extends Iterable<? extends T>>> grow) {
+        
+        return new AsyncGrowth<>(new Tree<>(data), grow).start();
+    }
+    
     
     
     /**
@@ -138,7 +555,44 @@ public class Tree<T> implements TreeNode, Iterable<Tree<T>> {
      * @return children of this node
      */
     public List<Tree<T>> getChildren() {
-        return Collections.unmodifiableList(children);
+        return Collections.unmodifiableList(childList());
+    }
+    
+    /**
+     * Returns the modifiable list of children, creating them first if this
+     * node was grown lazily and has not been expanded yet.
+     * 
+     * @return children of this node
+     */
+    private List<Tree<T>> childList() {
+        if(grow != null) {
+            final Function<T, Iterable<T>> grow = this.grow;
+            this.grow = null;
+            
+            for(T child : grow.apply(data)) {
+                final Tree<T> node = new Tree<>(this, child);
+                node.grow = grow;
+                node.unexpanded = 1;
+                attach(node);
+            }
+            
+            for(Tree<T> node=this; node!=null; node=node.attachedParent()) {
+                node.unexpanded--;
+            }
+        }
+        
+        return children;
+    }
+    
+    /**
+     * Returns if the growth of this node has been stopped by a budget before
+     * all of its children were created.
+     * 
+     * @return if the growth of this node has been truncated
+     * @see #growBudgeted(Object, Function, GrowthBudget)
+     */
+    public boolean isTruncated() {
+        return truncated;
     }
     
     /**
@@ -161,6 +615,42 @@ public class Tree<T> implements TreeNode, Iterable<Tree<T>> {
         return getChildren().isEmpty();
     }
     
+    /**
+     * Returns the depth of this node, which is the number of edges between
+     * this node and its root node.
+     * 
+     * @return depth of this node
+     */
+    public int depth() {
+        return depth;
+    }
+    
+    /**
+     * Returns the number of nodes in the sub tree of this node, including
+     * this node.
+     * The size is maintained when nodes are added or removed, so this takes
+     * constant time. For lazily grown trees only the nodes created so far
+     * are counted.
+     * 
+     * @return number of nodes in the sub tree of this node
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Returns the height of this node, which is the number of edges on the
+     * longest path from this node down to a leaf.
+     * The height is maintained when nodes are added or removed, so this
+     * takes constant time. For lazily grown trees only the nodes created so
+     * far are considered.
+     * 
+     * @return height of this node
+     */
+    public int height() {
+        return height;
+    }
+    
     
     /**
      * Adds a new child node with the given data.
@@ -170,7 +660,7 @@ public class Tree<T> implements TreeNode, Iterable<Tree<T>> {
      */
     public Tree<T> add(T child) {
         final Tree<T> node = new Tree<>(this, child);
-        children.add(node);
+        attach(node);
         return node;
     }
     
@@ -184,7 +674,7 @@ public class Tree<T> implements TreeNode, Iterable<Tree<T>> {
      */
     public Tree<T> add(T child, Function<T, Iterable<T>> grow) {
         final Tree<T> node = new Tree<>(this, child, grow);
-        children.add(node);
+        attach(node);
         return node;
     }
     
@@ -195,162 +685,1395 @@ public class Tree<T> implements TreeNode, Iterable<Tree<T>> {
      * @return removed child node
      */
     public Tree<T> remove(int index) {
-        return children.remove(index);
+        return detach(index);
     }
     
     /**
      * Removes the first child that holds the given data and returns the
      * whole node.
+     * Nodes with many children find the child in a hash index, but the
+     * children following it are still shifted and renumbered, so removing
+     * the child at index i takes expected time proportional to the number
+     * of children minus i. Removing one of the last children therefore
+     * takes constant expected time, like {@link #getChild(Object)}.
      * 
      * @param child data of the child to be removed
-     * @return removed child node
+     * @return removed child node or null if no child holds the given data
      */
     public Tree<T> remove(T child) {
-        for(int i=0; i<children.size(); i++) {
-            if(child.equals(children.get(i).getData())) {
-                return children.remove(i);
-            }
-        }
-        
-        return null;
+        final Tree<T> node = find(child);
+        return (node != null) ? detach(node.index) : null;
     }
     
-    
     /**
-     * Performs the given action for each node in this tree in pre-order.
-     * It is first performed for this node and then for its children
-     * recursively and therefore for the whole tree.
+     * Returns the first child that holds the given data.
+     * Nodes with many children look up the data in a hash index, which
+     * requires the data of the children to have stable hash codes.
      * 
-     * @param action to be performed for every node in pre-order
+     * @param child data of the child to be returned
+     * @return first child that holds the given data or null if there is
+     * none
      */
-    public void preOrder(Consumer<? super Tree<T>> action) {
-        action.accept(this);
-        getChildren().forEach((child) -> child.preOrder(action));
+    public Tree<T> getChild(T child) {
+        return find(child);
     }
     
     /**
-     * Performs the given action for each node in this tree in post-order.
-     * It is first performed for its children recursively and then for this
-     * node and therefore for the whole tree.
+     * Returns if a child holds the given data.
      * 
-     * @param action to be performed for every node in post-order
+     * @param child data to be looked for
+     * @return if a child holds the given data
      */
-    public void postOrder(Consumer<? super Tree<T>> action) {
-        getChildren().forEach((child) -> child.postOrder(action));
-        action.accept(this);
+    public boolean containsChild(T child) {
+        return find(child) != null;
     }
     
-    
-    
     /**
-     * {@inheritDoc}
+     * Finds the first child that holds the given data, building the hash
+     * index first if this node has enough children.
+     * 
+     * @param child data of the child to be found
+     * @return first child that holds the given data or null if there is
+     * none
      */
-    @Override
-    public Tree<T> getChildAt(int childIndex) {
-        return getChildren().get(childIndex);
+    @SuppressWarnings("unchecked")
+    private Tree<T> find(T child) {
+        final List<Tree<T>> children = childList();
+        
+        if(lookup == null && children.size() >= LOOKUP_THRESHOLD) {
+            lookup = new HashMap<>();
+            children.forEach(this::index);
+        }
+        
+        if(lookup != null) {
+            final Object entry = lookup.get(child);
+            if(entry instanceof Tree) {
+                return (Tree<T>)entry;
+            } else if(entry != null) {
+                return ((List<Tree<T>>)entry).get(0);
+            } else {
+                return null;
+            }
+        }
+        
+        for(int i=0; i<children.size(); i++) {
+            final Tree<T> node = children.get(i);
+            if(Objects.equals(child, node.getData())) {
+                return node;
+            }
+        }
+        
+        return null;
     }
     
     /**
-     * {@inheritDoc}
+     * Adds the given child to the hash index.
+     * It must not precede any other child with the same data.
+     * 
+     * @param node child to be added
      */
-    @Override
-    public int getChildCount() {
-        return getChildren().size();
+    @SuppressWarnings("unchecked")
+    private void index(Tree<T> node) {
+        final Object entry = lookup.putIfAbsent(node.data, node);
+        
+        if(entry instanceof Tree) {  //Second child with the same data
+            final List<Tree<T>> nodes = new ArrayList<>(2);
+            nodes.add((Tree<T>)entry);
+            nodes.add(node);
+            lookup.put(node.data, nodes);
+        } else if(entry != null) {
+            ((List<Tree<T>>)entry).add(node);
+        }
     }
     
     /**
-     * {@inheritDoc}
+     * Removes the given child from the hash index.
+     * 
+     * @param node child to be removed
      */
-    @Override
-    public int getIndex(TreeNode node) {
-        final List<Tree<T>> children = getChildren();
+    @SuppressWarnings("unchecked")
+    private void unindex(Tree<T> node) {
+        final Object entry = lookup.get(node.data);
         
-        for(int i=0; i<children.size(); i++) {
-            final Tree<T> child = children.get(i);
-            if(equals(child)) {
-                return i;
+        if(entry == node) {
+            lookup.remove(node.data);
+        } else if(entry instanceof List) {
+            final List<Tree<T>> nodes = (List<Tree<T>>)entry;
+            nodes.remove(node);
+            if(nodes.size() == 1) {
+                lookup.put(node.data, nodes.get(0));
             }
         }
-        
-        return -1;
     }
     
     /**
-     * {@inheritDoc}
+     * Constructs a new child node with the given data without appending it
+     * to the children of this node yet.
+     * Building a sub tree completely before attaching it propagates its size
+     * only once instead of once for every node.
+     * 
+     * @param child data of the child
+     * @return the new child node, not yet attached
+     * @see #attach(Tree)
      */
-    @Override
-    public boolean getAllowsChildren() {
-        return true;
+    Tree<T> newChild(T child) {
+        return new Tree<>(this, child);
     }
     
     /**
-     * {@inheritDoc}
+     * Appends the given node to the children of this node and records its
+     * position.
+     * The node must have been constructed as a child of this node and must
+     * not have been attached yet.
+     * 
+     * @param node node to be appended
      */
-    @Override
-    public Enumeration children() {
-        return Collections.enumeration(getChildren());
+    void attach(Tree<T> node) {
+        final List<Tree<T>> children = childList();
+        
+        node.index = children.size();
+        children.add(node);
+        if(lookup != null) {
+            index(node);
+        }
+        
+        int height = node.height;
+        for(Tree<T> n=this; n!=null; n=n.attachedParent()) {
+            n.size += node.size;
+            n.unexpanded += node.unexpanded;
+            n.height = Math.max(n.height, height + 1);
+            height = n.height;
+        }
     }
     
-    
     /**
-     * Iterator that iterates over this tree in pre-order.
+     * Removes the child at the given index and updates the positions of the
+     * following children.
+     * 
+     * @param index index of the child to be removed
+     * @return removed child node
      */
-    private class TreeIterator implements Iterator<Tree<T>> {
-        /**
-         * Iterator for the direct children.
-         */
-        private Iterator<Tree<T>> children;
-        /**
-         * Iterator for the grandchildren children.
-         */
-        private Iterator<Tree<T>> childIterator;
-        
+    private Tree<T> detach(int index) {
+        final List<Tree<T>> children = childList();
+        final Tree<T> node = children.remove(index);
         
+        for(int i=index; i<children.size(); i++) {
+            children.get(i).index = i;
+        }
+        node.index = -1;
+        if(lookup != null) {
+            unindex(node);
+        }
         
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public boolean hasNext() {
-            if(children == null) {  //Still at root
-                return true;
-                
-            } else {
-                if(childIterator != null) {
-                    if(childIterator.hasNext()) { //Still grandchildren left
-                        return true;
-                        
-                    } else {  //No grandchildren but children left
-                        return children.hasNext();
-                    }
-                } else {
-                    return false;
+        //Previous height of the child whose sub tree has shrunk or -1 if
+        //the heights further up are unchanged
+        int shrunk = node.height;
+        for(Tree<T> n=this; n!=null; n=n.attachedParent()) {
+            n.size -= node.size;
+            n.unexpanded -= node.unexpanded;
+            if(shrunk < 0 || shrunk + 1 < n.height) {  //Not defining height
+                shrunk = -1;
+                continue;
+            }
+            
+            int height = 0;
+            for(Tree<T> child : n.children) {
+                height = Math.max(height, child.height + 1);
+                if(height == n.height) {  //Another child defines the height
+                    break;
                 }
             }
+            shrunk = (height != n.height) ? n.height : -1;
+            n.height = height;
         }
         
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public Tree<T> next() {
-            if(children == null) {  //Still at root
-                children = getChildren().iterator();
-                if(children.hasNext()) {
-                    childIterator = children.next().iterator();
-                }
-                return Tree.this;
+        return node;
+    }
+    
+    /**
+     * Returns the parent of this node if this node is one of its children,
+     * which is not the case while this node is grown or after it has been
+     * removed. Sizes and heights are propagated only along these links.
+     * 
+     * @return parent of this node if it is attached to it, otherwise null
+     */
+    private Tree<T> attachedParent() {
+        return (index >= 0) ? parent : null;
+    }
+    
+    
+    /**
+     * Performs the given action for each node in this tree in pre-order.
+     * It is first performed for this node and then for its children
+     * recursively and therefore for the whole tree.
+     * The traversal uses an explicit stack, so arbitrarily deep trees can be
+     * traversed in constant Java stack space.
+     * 
+     * @param action to be performed for every node in pre-order
+     */
+    public void preOrder(Consumer<? super Tree<T>> action) {
+        final PathStack<T> stack = new PathStack<>();
+        
+        action.accept(this);
+        stack.push(this);
+        while(!stack.isEmpty()) {
+            final Tree<T> child = stack.nextChild();
+            if(child != null) {
+                action.accept(child);
+                stack.push(child);
+            } else {  //All children visited
+                stack.pop();
+            }
+        }
+    }
+    
+    /**
+     * Performs the given action for each node in this tree in post-order.
+     * It is first performed for its children recursively and then for this
+     * node and therefore for the whole tree.
+     * The traversal uses an explicit stack, so arbitrarily deep trees can be
+     * traversed in constant Java stack space.
+     * 
+     * @param action to be performed for every node in post-order
+     */
+    public void postOrder(Consumer<? super Tree<T>> action) {
+        final PathStack<T> stack = new PathStack<>();
+        
+        stack.push(this);
+        while(!stack.isEmpty()) {
+            final Tree<T> child = stack.nextChild();
+            if(child != null) {
+                stack.push(child);
+            } else {  //All children visited
+                action.accept(stack.pop());
+            }
+        }
+    }
+    
+    /**
+     * Performs the given action for each node in this tree in level-order.
+     * It is first performed for this node, then for its children, then for
+     * its grandchildren and so on, each level from the first to the last
+     * child.
+     * 
+     * @param action to be performed for every node in level-order
+     */
+    public void levelOrder(Consumer<? super Tree<T>> action) {
+        final NodeQueue<T> queue = new NodeQueue<>();
+        
+        queue.add(this);
+        while(!queue.isEmpty()) {
+            final Tree<T> node = queue.poll();
+            action.accept(node);
+            queue.addChildren(node);
+        }
+    }
+    
+    /**
+     * Reduces this tree to a single value.
+     * Every leaf is mapped with the given leaf function and every other node
+     * is combined from its data and the values of its children, in the order
+     * of the children. The nodes are folded in post-order with an explicit
+     * stack, so arbitrarily deep trees can be folded.
+     * 
+     * @param <R> type of the value
+     * @param leaf function that maps the data of a leaf to its value
+     * @param combine function that combines the data of a node and the
+     * values of its children to the value of the node
+     * @return value of this node
+     */
+    public <R> R fold(Function<? super T, ? extends R> leaf,
+            BiFunction<? super T, ? super List<R>, ? extends R> combine) {
+        
+        //Values of the folded nodes whose parent has not been folded yet
+        final List<R> values = new ArrayList<>();
+        
+        postOrder((node) -> {
+            final int count = node.children.size();
+            if(count == 0) {
+                values.add(leaf.apply(node.data));
+                return;
+            }
+            
+            final List<R> children =
+                    values.subList(values.size() - count, values.size());
+            final R value =
+                    combine.apply(node.data, new ArrayList<>(children));
+            children.clear();
+            values.add(value);
+        });
+        
+        return values.get(0);
+    }
+    
+    /**
+     * Reduces this tree to a single value in parallel.
+     * Works like {@link #fold(Function, BiFunction)}, but the sub trees of
+     * children are folded as separate tasks in the common
+     * {@link ForkJoinPool} as long as they have more nodes than
+     * {@value #FOLD_THRESHOLD}, smaller ones are folded sequentially.
+     * The functions may be called concurrently and therefore must be thread
+     * safe. Lazily grown trees are expanded completely first.
+     * 
+     * @param <R> type of the value
+     * @param leaf function that maps the data of a leaf to its value
+     * @param combine function that combines the data of a node and the
+     * values of its children to the value of the node
+     * @return value of this node
+     */
+    public <R> R foldParallel(Function<? super T, ? extends R> leaf,
+            BiFunction<? super T, ? super List<R>, ? extends R> combine) {
+        
+        return foldParallel(leaf, combine, FOLD_THRESHOLD);
+    }
+    
+    /**
+     * Reduces this tree to a single value in parallel.
+     * Works like {@link #fold(Function, BiFunction)}, but the sub trees of
+     * children are folded as separate tasks in the common
+     * {@link ForkJoinPool} as long as they have more nodes than the given
+     * threshold, smaller ones are folded sequentially.
+     * The functions may be called concurrently and therefore must be thread
+     * safe. Lazily grown trees are expanded completely first.
+     * 
+     * @param <R> type of the value
+     * @param leaf function that maps the data of a leaf to its value
+     * @param combine function that combines the data of a node and the
+     * values of its children to the value of the node
+     * @param threshold number of nodes up to which a sub tree is folded
+     * sequentially
+     * @return value of this node
+     */
+    public <R> R foldParallel(Function<? super T, ? extends R> leaf,
+            BiFunction<? super T, ? super List<R>, ? extends R> combine,
+            int threshold) {
+        
+        expandAll();
+        return ForkJoinPool.commonPool().invoke(
+                new FoldTask<>(this, leaf, combine, threshold));
+    }
+    
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Tree<T> getChildAt(int childIndex) {
+        return getChildren().get(childIndex);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getChildCount() {
+        return getChildren().size();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getIndex(TreeNode node) {
+        if(node instanceof Tree && node.getParent() == this) {
+            return ((Tree<?>)node).index;
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean getAllowsChildren() {
+        return true;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Enumeration children() {
+        return Collections.enumeration(getChildren());
+    }
+    
+    
+    /**
+     * Task that grows the sub tree of a node, forking a new task for every
+     * child above the cutoff depth.
+     * The children are attached to the node only after all of their sub
+     * trees have been grown, so no node is modified by two threads.
+     * 
+     * @param <T> data type of the nodes
+     */
+    private static final class GrowTask<T> extends RecursiveAction {
+        
+        /**
+         * Number of queued tasks above which no new tasks are forked.
+         */
+        private static final int SURPLUS_THRESHOLD = 3;
+        
+        
+        /**
+         * Node whose sub tree is grown.
+         */
+        private final Tree<T> node;
+        /**
+         * Growth function.
+         */
+        private final Function<T, Iterable<T>> grow;
+        /**
+         * Predicate that a node must satisfy to be grown or null to grow
+         * every node.
+         */
+        private final Predicate<? super T> keep;
+        /**
+         * Depth of the node.
+         */
+        private final int depth;
+        /**
+         * Depth from which on sub trees are grown sequentially.
+         */
+        private final int cutoff;
+        /**
+         * If the node has been pruned and must not be attached.
+         */
+        private boolean pruned;
+        
+        
+        
+        /**
+         * Constructs a new task that grows the sub tree of the given node.
+         * 
+         * @param node node whose sub tree is grown
+         * @param grow growth function
+         * @param keep predicate that a node must satisfy to be grown or null
+         * to grow every node
+         * @param depth depth of the node
+         * @param cutoff depth from which on sub trees are grown sequentially
+         */
+        public GrowTask(Tree<T> node, Function<T, Iterable<T>> grow,
+                Predicate<? super T> keep, int depth, int cutoff) {
+            
+            this.node = node;
+            this.grow = grow;
+            this.keep = keep;
+            this.depth = depth;
+            this.cutoff = cutoff;
+        }
+        
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void compute() {
+            if(keep != null && depth > 0 && !keep.test(node.data)) {
+                pruned = true;
+                return;
+            }
+            
+            if(depth >= cutoff
+                    || getSurplusQueuedTaskCount() > SURPLUS_THRESHOLD) {
+                if(keep != null) {
+                    for(T child : grow.apply(node.data)) {
+                        if(keep.test(child)) {
+                            node.attach(new Tree<>(node, child, grow, keep));
+                        }
+                    }
+                } else {
+                    grow.apply(node.data).forEach(
+                            (child) -> node.add(child, grow));
+                }
+                return;
+            }
+            
+            final List<GrowTask<T>> tasks = new ArrayList<>();
+            for(T child : grow.apply(node.data)) {
+                tasks.add(new GrowTask<>(new Tree<>(node, child), grow, keep,
+                        depth + 1, cutoff));
+            }
+            
+            invokeAll(tasks);
+            
+            for(GrowTask<T> task : tasks) {
+                if(!task.pruned) {
+                    node.attach(task.node);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Growth of a single node of a tree grown by
+     * {@link #growConcurrent(Object, Function, Executor, int)} or
+     * {@link #growAsync(Object, Function)}.
+     * The children of the node are attached to it once all of their sub
+     * trees are complete, so every node is attached only once and in order.
+     * Apart from fetching the data of the children, jobs must only be
+     * accessed by one thread at a time.
+     * 
+     * @param <T> data type of the nodes
+     */
+    private static final class GrowJob<T> {
+        
+        /**
+         * Node whose children are grown.
+         */
+        private final Tree<T> node;
+        /**
+         * Job of the parent node or null for the root node.
+         */
+        private final GrowJob<T> parent;
+        /**
+         * Data of the children fetched by {@link #fetch(Function)}.
+         */
+        private List<T> fetched;
+        /**
+         * Child nodes that are attached once the sub tree is complete.
+         */
+        private final List<Tree<T>> children = new ArrayList<>();
+        /**
+         * Number of children whose sub trees are not complete yet.
+         */
+        private int remaining;
+        /**
+         * If the sub tree of the node is complete.
+         */
+        private boolean complete;
+        
+        
+        
+        /**
+         * Constructs a new job that grows the children of the given node.
+         * 
+         * @param node node whose children are grown
+         * @param parent job of the parent node or null for the root node
+         */
+        public GrowJob(Tree<T> node, GrowJob<T> parent) {
+            this.node = node;
+            this.parent = parent;
+        }
+        
+        
+        
+        /**
+         * Calls the given growth function and collects the returned data,
+         * so that iterating over it happens in the calling thread as well.
+         * 
+         * @param grow growth function
+         * @return this job
+         */
+        public GrowJob<T> fetch(Function<T, Iterable<T>> grow) {
+            final List<T> fetched = new ArrayList<>();
+            for(T child : grow.apply(node.data)) {
+                fetched.add(child);
+            }
+            this.fetched = fetched;
+            return this;
+        }
+        
+        /**
+         * Creates the children with the given data and returns the jobs
+         * that grow them.
+         * If there are no children this completes the sub tree, which
+         * attaches the children of every parent whose sub tree gets
+         * completed by this.
+         * 
+         * @param data data of the children
+         * @return jobs that grow the children
+         */
+        public List<GrowJob<T>> expand(Iterable<? extends T> data) {
+            final List<GrowJob<T>> jobs = new ArrayList<>();
+            for(T child : data) {
+                final GrowJob<T> job =
+                        new GrowJob<>(node.newChild(child), this);
+                children.add(job.node);
+                jobs.add(job);
+            }
+            fetched = null;
+            
+            remaining = children.size();
+            for(GrowJob<T> job=this; job!=null && job.remaining==0;
+                    job=job.parent) {
+                for(Tree<T> child : job.children) {
+                    job.node.attach(child);
+                }
+                job.children.clear();
+                job.complete = true;
+                
+                if(job.parent != null) {
+                    job.parent.remaining--;
+                }
+            }
+            
+            return jobs;
+        }
+        
+        /**
+         * Returns if the sub tree of the node is complete.
+         * 
+         * @return if the sub tree of the node is complete
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+    
+    /**
+     * Growth of a tree by {@link #growAsync(Object, Function)}.
+     * The jobs whose children are to be grown are queued and taken by
+     * whichever thread completes a future while no other thread is doing
+     * so, which keeps already completed futures from recursing through the
+     * whole tree. All access to the jobs is synchronized on this object.
+     * 
+     * @param <T> data type of the nodes
+     */
+    private static final class AsyncGrowth<T> {
+        
+        /**
+         * Growth function.
+         */
+        private final Function<T, ? extends CompletionStage<
+                ? extends Iterable<? extends T>>> grow;
+        /**
+         * Job of the root node.
+         */
+        private final GrowJob<T> root;
+        /**
+         * Future of the grown tree.
+         */
+        private final CompletableFuture<Tree<T>> result =
+                new CompletableFuture<>();
+        /**
+         * Jobs whose growth function has not been called yet.
+         */
+        private final ArrayDeque<GrowJob<T>> ready = new ArrayDeque<>();
+        /**
+         * If a thread is calling the growth function for the ready jobs.
+         */
+        private boolean draining;
+        
+        
+        
+        /**
+         * Constructs a new growth of a tree from the given root node.
+         * 
+         * @param root root node to be grown
+         * @param grow growth function
+         */
+        public AsyncGrowth(Tree<T> root, Function<T, ? extends CompletionStage<
+                ? extends Iterable<? extends T>>> grow) {
+            
+            this.root = new GrowJob<>(root, null);
+            this.grow = grow;
+        }
+        
+        
+        
+        /**
+         * Starts growing the tree.
+         * 
+         * @return future of the grown tree
+         */
+        public CompletableFuture<Tree<T>> start() {
+            synchronized(this) {
+                ready.add(root);
+                draining = true;
+            }
+            drain();
+            return result;
+        }
+        
+        /**
+         * Calls the growth function for the ready jobs until there are none
+         * left or the growth has finished.
+         */
+        private void drain() {
+            while(true) {
+                final GrowJob<T> job;
+                synchronized(this) {
+                    job = ready.poll();
+                    if(job == null || result.isDone()) {
+                        draining = false;
+                        return;
+                    }
+                }
+                
+                final CompletionStage<? extends Iterable<? extends T>> stage;
+                try {
+                    stage = grow.apply(job.node.data);
+                } catch(RuntimeException | Error ex) {
+                    result.completeExceptionally(ex);
+                    continue;
+                }
+                stage.whenComplete((children, ex) -> grown(job, children, ex));
+            }
+        }
+        
+        /**
+         * Creates the children of the given job once the growth function
+         * has completed for it.
+         * 
+         * @param job job whose growth function has completed
+         * @param children data of the children
+         * @param ex exception the growth function has completed with or
+         * null if it has completed normally
+         */
+        private void grown(GrowJob<T> job, Iterable<? extends T> children,
+                Throwable ex) {
+            
+            if(ex != null) {
+                result.completeExceptionally(ex);
+                return;
+            }
+            
+            //Complete the result outside of the lock, so that dependent
+            //actions that run synchronously can't block other growths
+            Throwable failure = null;
+            boolean complete = false;
+            synchronized(this) {
+                if(result.isDone()) {
+                    return;
+                }
+                try {
+                    ready.addAll(job.expand(children));
+                    complete = root.isComplete();
+                } catch(RuntimeException | Error e) {
+                    failure = e;
+                }
+                if(failure == null && !complete) {
+                    if(draining) {
+                        return;
+                    }
+                    draining = true;
+                }
+            }
+            
+            if(failure != null) {
+                result.completeExceptionally(failure);
+            } else if(complete) {
+                result.complete(root.node);
+            } else {
+                drain();
+            }
+        }
+    }
+    
+    /**
+     * Task that folds the sub tree of a node, forking a new task for every
+     * child with a sub tree above the threshold size.
+     * 
+     * @param <T> data type of the nodes
+     * @param <R> type of the value
+     */
+    private static final class FoldTask<T, R> extends RecursiveTask<R> {
+        
+        /**
+         * Node whose sub tree is folded.
+         */
+        private final Tree<T> node;
+        /**
+         * Function that maps the data of a leaf to its value.
+         */
+        private final Function<? super T, ? extends R> leaf;
+        /**
+         * Function that combines the data of a node and the values of its
+         * children.
+         */
+        private final BiFunction<? super T, ? super List<R>, ? extends R>
+                combine;
+        /**
+         * Number of nodes up to which a sub tree is folded sequentially.
+         */
+        private final int threshold;
+        
+        
+        
+        /**
+         * Constructs a new task that folds the sub tree of the given node.
+         * 
+         * @param node node whose sub tree is folded
+         * @param leaf function that maps the data of a leaf to its value
+         * @param combine function that combines the data of a node and the
+         * values of its children
+         * @param threshold number of nodes up to which a sub tree is folded
+         * sequentially
+         */
+        public FoldTask(Tree<T> node, Function<? super T, ? extends R> leaf,
+                BiFunction<? super T, ? super List<R>, ? extends R> combine,
+                int threshold) {
+            
+            this.node = node;
+            this.leaf = leaf;
+            this.combine = combine;
+            this.threshold = threshold;
+        }
+        
+        
+        
+        /**
+         * {@inheritDoc}
+         * A node with a single child above the threshold size is not forked,
+         * instead this task continues with that child and folds the other
+         * children itself. This keeps long paths from nesting as many tasks.
+         */
+        @Override
+        protected R compute() {
+            //Nodes continued with, the values of their children with a gap
+            //for the continued child and the index of that child
+            final List<Tree<T>> path = new ArrayList<>();
+            final List<List<R>> pending = new ArrayList<>();
+            final List<Integer> gaps = new ArrayList<>();
+            
+            Tree<T> current = node;
+            R value;
+            while(true) {
+                if(current.size <= threshold || current.children.isEmpty()) {
+                    value = current.fold(leaf, combine);
+                    break;
+                }
+                
+                int heavy = -1;
+                int heavyCount = 0;
+                for(int i=0; i<current.children.size(); i++) {
+                    if(current.children.get(i).size > threshold) {
+                        heavy = i;
+                        heavyCount++;
+                    }
+                }
+                if(heavyCount != 1) {
+                    value = forkChildren(current);
+                    break;
+                }
                 
+                final List<R> values = new ArrayList<>();
+                for(int i=0; i<current.children.size(); i++) {
+                    values.add((i != heavy)
+                            ? current.children.get(i).fold(leaf, combine)
+                            : null);
+                }
+                path.add(current);
+                pending.add(values);
+                gaps.add(heavy);
+                current = current.children.get(heavy);
+            }
+            
+            for(int i=path.size()-1; i>=0; i--) {
+                pending.get(i).set(gaps.get(i), value);
+                value = combine.apply(path.get(i).data, pending.get(i));
+            }
+            return value;
+        }
+        
+        /**
+         * Folds the sub trees of the children of the given node as separate
+         * tasks and combines their values.
+         * 
+         * @param node node whose children are folded
+         * @return value of the node
+         */
+        private R forkChildren(Tree<T> node) {
+            final List<FoldTask<T, R>> tasks = new ArrayList<>();
+            for(Tree<T> child : node.children) {
+                tasks.add(new FoldTask<>(child, leaf, combine, threshold));
+            }
+            
+            invokeAll(tasks);
+            
+            final List<R> values = new ArrayList<>(tasks.size());
+            for(FoldTask<T, R> task : tasks) {
+                values.add(task.join());
+            }
+            return combine.apply(node.data, values);
+        }
+    }
+    
+    /**
+     * Stack of the nodes on a path through a tree together with the index of
+     * the next child to visit for every node on it.
+     * It is used by all traversals instead of recursion and grows on demand,
+     * so it allocates nothing per visited node.
+     * 
+     * @param <T> data type of the nodes
+     */
+    private static final class PathStack<T> {
+        /**
+         * Nodes on the path.
+         */
+        private Tree<T>[] nodes;
+        /**
+         * Index of the next child to visit for every node on the path.
+         */
+        private int[] indices;
+        /**
+         * Number of nodes on the path.
+         */
+        private int size;
+        
+        
+        
+        /**
+         * Constructs a new empty stack.
+         */
+        @SuppressWarnings("unchecked")
+        public PathStack() {
+            nodes = new Tree[16];
+            indices = new int[16];
+        }
+        
+        
+        
+        /**
+         * Returns if the stack is empty.
+         * 
+         * @return if the stack is empty
+         */
+        public boolean isEmpty() {
+            return size == 0;
+        }
+        
+        /**
+         * Pushes the given node onto the stack.
+         * Its children will be visited starting with the first one.
+         * 
+         * @param node node to be pushed
+         */
+        public void push(Tree<T> node) {
+            if(size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2*size);
+                indices = Arrays.copyOf(indices, 2*size);
+            }
+            nodes[size] = node;
+            indices[size] = 0;
+            size++;
+        }
+        
+        /**
+         * Removes and returns the top node.
+         * 
+         * @return the removed top node
+         */
+        public Tree<T> pop() {
+            final Tree<T> node = nodes[--size];
+            nodes[size] = null;
+            return node;
+        }
+        
+        /**
+         * Returns the next unvisited child of the top node and marks it as
+         * visited.
+         * 
+         * @return next unvisited child of the top node or null if all of
+         * its children have been visited
+         */
+        public Tree<T> nextChild() {
+            final List<Tree<T>> children = nodes[size-1].childList();
+            final int index = indices[size-1];
+            
+            if(index < children.size()) {
+                indices[size-1] = index + 1;
+                return children.get(index);
             } else {
-                if(childIterator.hasNext()) {
-                    //While there are grandchildren, return them
-                    return childIterator.next();
-                    
-                } else {  //Otherwise go to next child
-                    childIterator = children.next().iterator();
-                    return childIterator.next();
+                return null;
+            }
+        }
+    }
+    
+    /**
+     * Iterator that iterates over this tree in pre-order.
+     * The current path is kept on a single index stack which is reused for
+     * the whole traversal, so no objects are allocated per visited node.
+     */
+    private class TreeIterator implements Iterator<Tree<T>> {
+        /**
+         * Path from this tree to the last returned node.
+         */
+        private final PathStack<T> stack = new PathStack<>();
+        /**
+         * Node to be returned next or null if the traversal is finished.
+         */
+        private Tree<T> next = Tree.this;
+        
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Tree<T> next() {
+            if(next == null) {
+                throw new NoSuchElementException();
+            }
+            
+            final Tree<T> node = next;
+            stack.push(node);
+            next = advance();
+            return node;
+        }
+        
+        /**
+         * Finds the next node in pre-order, which is the next unvisited child
+         * of the deepest node on the path that still has one.
+         * 
+         * @return next node or null if the traversal is finished
+         */
+        private Tree<T> advance() {
+            while(!stack.isEmpty()) {
+                final Tree<T> child = stack.nextChild();
+                if(child != null) {
+                    return child;
+                }
+                stack.pop();  //Subtree finished
+            }
+            
+            return null;
+        }
+    }
+    
+    /**
+     * Queue of nodes backed by a ring buffer that grows on demand.
+     * It is used by the level-order traversals and allocates nothing per
+     * queued node.
+     * 
+     * @param <T> data type of the nodes
+     */
+    private static final class NodeQueue<T> {
+        /**
+         * Ring buffer of the queued nodes, its length is a power of two.
+         */
+        private Tree<T>[] nodes;
+        /**
+         * Index of the first queued node.
+         */
+        private int head;
+        /**
+         * Number of queued nodes.
+         */
+        private int size;
+        
+        
+        
+        /**
+         * Constructs a new empty queue.
+         */
+        @SuppressWarnings("unchecked")
+        public NodeQueue() {
+            nodes = new Tree[16];
+        }
+        
+        
+        
+        /**
+         * Returns if the queue is empty.
+         * 
+         * @return if the queue is empty
+         */
+        public boolean isEmpty() {
+            return size == 0;
+        }
+        
+        /**
+         * Appends the given node to the queue.
+         * 
+         * @param node node to be appended
+         */
+        public void add(Tree<T> node) {
+            if(size == nodes.length) {  //Unwrap into a buffer twice as big
+                final Tree<T>[] grown = Arrays.copyOf(nodes, 2*size);
+                System.arraycopy(nodes, 0, grown, size, head);
+                nodes = grown;
+            }
+            nodes[(head + size++) & (nodes.length - 1)] = node;
+        }
+        
+        /**
+         * Appends all children of the given node to the queue.
+         * 
+         * @param node node whose children are to be appended
+         */
+        public void addChildren(Tree<T> node) {
+            final List<Tree<T>> children = node.childList();
+            for(int i=0; i<children.size(); i++) {
+                add(children.get(i));
+            }
+        }
+        
+        /**
+         * Removes and returns the first node.
+         * 
+         * @return the removed first node
+         */
+        public Tree<T> poll() {
+            final Tree<T> node = nodes[head];
+            nodes[head] = null;
+            head = (head + 1) & (nodes.length - 1);
+            size--;
+            return node;
+        }
+    }
+    
+    /**
+     * Iterator that iterates over a tree in level-order.
+     */
+    private static final class LevelOrderIterator<T>
+            implements Iterator<Tree<T>> {
+        
+        /**
+         * Nodes to be returned, the children of a node are queued as soon as
+         * it is returned.
+         */
+        private final NodeQueue<T> queue = new NodeQueue<>();
+        
+        
+        
+        /**
+         * Constructs a new iterator over the given tree.
+         * 
+         * @param root root of the tree to be iterated over
+         */
+        public LevelOrderIterator(Tree<T> root) {
+            queue.add(root);
+        }
+        
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Tree<T> next() {
+            if(queue.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            
+            final Tree<T> node = queue.poll();
+            queue.addChildren(node);
+            return node;
+        }
+    }
+    
+    /**
+     * Spliterator that traverses a tree in pre-order.
+     * It covers an optional head node followed by the sub trees of a range
+     * of siblings. Splitting hands off the first half of that range (together
+     * with the head node), or descends into the only sub tree left.
+     * The spliterator is sized unless the tree still has lazily grown nodes
+     * that have not been expanded, as the sub tree sizes are known.
+     * 
+     * @param <T> data type of the nodes
+     */
+    private static final class TreeSpliterator<T>
+            implements Spliterator<Tree<T>> {
+        
+        /**
+         * Node to be returned first or null if there is none (anymore).
+         */
+        private Tree<T> head;
+        /**
+         * Parent of the covered range of siblings.
+         */
+        private Tree<T> parent;
+        /**
+         * Index of the first sibling whose sub tree has not been started.
+         */
+        private int from;
+        /**
+         * Index after the last covered sibling.
+         */
+        private int to;
+        /**
+         * Path inside the sub tree that is currently traversed.
+         */
+        private final PathStack<T> stack = new PathStack<>();
+        /**
+         * Estimated number of remaining nodes, exact if sized.
+         */
+        private long estimate;
+        /**
+         * If the number of remaining nodes is known exactly.
+         */
+        private final boolean sized;
+        
+        
+        
+        /**
+         * Constructs a new spliterator that covers the given tree.
+         * 
+         * @param root root of the tree to be covered
+         */
+        public TreeSpliterator(Tree<T> root) {
+            this(root, root, 0, root.getChildCount(),
+                    (root.unexpanded == 0) ? root.size : Long.MAX_VALUE,
+                    root.unexpanded == 0);
+        }
+        
+        /**
+         * Constructs a new spliterator that covers the given head node
+         * followed by the sub trees of the given range of siblings.
+         * 
+         * @param head node to be returned first or null if there is none
+         * @param parent parent of the range of siblings
+         * @param from index of the first covered sibling
+         * @param to index after the last covered sibling
+         * @param estimate estimated number of covered nodes
+         * @param sized if the estimate is exact
+         */
+        private TreeSpliterator(Tree<T> head, Tree<T> parent,
+                int from, int to, long estimate, boolean sized) {
+            
+            this.head = head;
+            this.parent = parent;
+            this.from = from;
+            this.to = to;
+            this.estimate = estimate;
+            this.sized = sized;
+        }
+        
+        
+        
+        /**
+         * Returns the next node in pre-order.
+         * 
+         * @return next node or null if the traversal is finished
+         */
+        private Tree<T> next() {
+            final Tree<T> node = advance();
+            if(node != null && sized) {
+                estimate--;
+            }
+            return node;
+        }
+        
+        /**
+         * Moves on to the next node in pre-order.
+         * 
+         * @return next node or null if the traversal is finished
+         */
+        private Tree<T> advance() {
+            if(head != null) {
+                final Tree<T> node = head;
+                head = null;
+                return node;
+            }
+            
+            while(!stack.isEmpty()) {
+                final Tree<T> child = stack.nextChild();
+                if(child != null) {
+                    stack.push(child);
+                    return child;
+                }
+                stack.pop();  //Subtree finished
+            }
+            
+            if(from < to) {  //Start the next sibling sub tree
+                final Tree<T> child = parent.childList().get(from++);
+                stack.push(child);
+                return child;
+            }
+            
+            return null;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean tryAdvance(Consumer<? super Tree<T>> action) {
+            final Tree<T> node = next();
+            if(node == null) {
+                return false;
+            }
+            
+            action.accept(node);
+            return true;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void forEachRemaining(Consumer<? super Tree<T>> action) {
+            for(Tree<T> node=next(); node!=null; node=next()) {
+                action.accept(node);
+            }
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Spliterator<Tree<T>> trySplit() {
+            if(!stack.isEmpty()) {  //Already inside a sub tree
+                return null;
+            }
+            
+            if(head == null && to - from == 1) {  //Descend into last sub tree
+                head = parent.childList().get(from);
+                parent = head;
+                from = 0;
+                to = head.getChildCount();
+            }
+            
+            final int n = to - from;
+            if(n < (head != null ? 1 : 2)) {
+                return null;
+            }
+            
+            //Hand off the head node and the first half of the siblings
+            final int mid = from + n/2;
+            final long size;
+            if(sized) {
+                long sum = (head != null) ? 1 : 0;
+                for(int i=from; i<mid; i++) {
+                    sum += parent.children.get(i).size;
                 }
+                size = sum;
+                estimate -= size;
+            } else {
+                size = estimate >>>= 1;
             }
+            final TreeSpliterator<T> prefix = new TreeSpliterator<>(
+                    head, parent, from, mid, size, sized);
+            head = null;
+            from = mid;
+            return prefix;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | NONNULL
+                    | (sized ? SIZED | SUBSIZED : 0);
         }
     }
     
@@ -370,6 +2093,15 @@ public class Tree<T> implements TreeNode, Iterable<Tree<T>> {
         return new TreeIterator();
     }
     
+    /**
+     * Returns a iterator that traverses this tree in level-order.
+     * 
+     * @return iterator that traverses this tree in level-order
+     */
+    public Iterator<Tree<T>> levelOrderIterator() {
+        return new LevelOrderIterator<>(this);
+    }
+    
     /**
      * Performs the given action for each node in pre-order.
      */
@@ -378,6 +2110,62 @@ public class Tree<T> implements TreeNode, Iterable<Tree<T>> {
         preOrder(action);
     }
     
+    /**
+     * Returns a spliterator that traverses this tree in pre-order.
+     * It splits by handing off ranges of sibling sub trees, which makes it
+     * suitable for parallel streams.
+     * 
+     * @return spliterator that traverses this tree in pre-order
+     */
+    @Override
+    public Spliterator<Tree<T>> spliterator() {
+        return new TreeSpliterator<>(this);
+    }
+    
+    /**
+     * Returns a sequential stream of the nodes of this tree in pre-order.
+     * 
+     * @return sequential stream of the nodes of this tree
+     */
+    public Stream<Tree<T>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+    
+    /**
+     * Returns a possibly parallel stream of the nodes of this tree in
+     * pre-order.
+     * Lazily grown trees should not be streamed in parallel, as they are
+     * expanded while being traversed.
+     * 
+     * @return possibly parallel stream of the nodes of this tree
+     */
+    public Stream<Tree<T>> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+    
+    
+    /**
+     * Returns an immutable, array backed copy of this tree.
+     * Lazily grown trees are expanded completely first.
+     * 
+     * @return immutable copy of this tree
+     * @see FrozenTree
+     */
+    public FrozenTree<T> freeze() {
+        expandAll();
+        return new FrozenTree<>(this);
+    }
+    
+    /**
+     * Creates all nodes of this sub tree that have not been created yet
+     * because they were grown lazily.
+     */
+    void expandAll() {
+        if(unexpanded > 0) {
+            preOrder((node) -> {});
+        }
+    }
+    
     
     /**
      * {@inheritDoc}
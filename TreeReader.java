@@ -0,0 +1,149 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2019 Sebastian Gössl
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+
+
+package tree;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.util.Arrays;
+
+
+
+/**
+ * Reader that decodes trees written by a {@link TreeWriter} from a stream.
+ * The nodes are read one at a time and without recursion. Apart from the
+ * tree itself only memory proportional to its height is needed. Every sub
+ * tree is attached to its parent once it has been read completely.
+ * 
+ * @author Sebastian Gössl
+ * @version 1.0 17.10.2026
+ * @param <T> data type of the trees
+ */
+public class TreeReader<T> implements Closeable {
+    
+    /**
+     * Stream the trees are read from.
+     */
+    private final DataInputStream in;
+    /**
+     * Codec that reads the data of the nodes.
+     */
+    private final TreeCodec<? extends T> codec;
+    
+    
+    
+    /**
+     * Constructs a new reader that reads from the given stream.
+     * 
+     * @param in stream to be read from
+     * @param codec codec that reads the data of the nodes
+     */
+    public TreeReader(InputStream in, TreeCodec<? extends T> codec) {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        this.codec = codec;
+    }
+    
+    
+    
+    /**
+     * Reads the next tree.
+     * 
+     * @return the read tree
+     * @throws java.io.EOFException if the stream ends before a tree was
+     * read completely
+     * @throws IOException if an I/O error occurs
+     */
+    @SuppressWarnings("unchecked")
+    public Tree<T> read() throws IOException {
+        final Tree<T> root = new Tree<>(codec.read(in));
+        
+        //Nodes on the path from the root whose children are still read
+        Tree<T>[] nodes = new Tree[16];
+        int[] remaining = new int[16];
+        int size = 0;
+        
+        nodes[0] = root;
+        remaining[0] = readVarInt();
+        size++;
+        while(size > 0) {
+            if(remaining[size-1] == 0) {  //Sub tree complete
+                final Tree<T> node = nodes[--size];
+                nodes[size] = null;
+                if(size > 0) {
+                    nodes[size-1].attach(node);
+                }
+                continue;
+            }
+            
+            remaining[size-1]--;
+            final Tree<T> child = nodes[size-1].newChild(codec.read(in));
+            if(size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2*size);
+                remaining = Arrays.copyOf(remaining, 2*size);
+            }
+            nodes[size] = child;
+            remaining[size] = readVarInt();
+            size++;
+        }
+        
+        return root;
+    }
+    
+    /**
+     * Reads a non negative integer written by the {@link TreeWriter}.
+     * 
+     * @return the read value
+     * @throws IOException if an I/O error occurs or the value is malformed
+     */
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for(int shift=0; shift<32; shift+=7) {
+            final int b = in.readUnsignedByte();
+            if(shift == 28 && (b & 0xF8) != 0) {  //Overlong or negative
+                break;
+            }
+            value |= (b & 0x7F) << shift;
+            if((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        
+        throw new StreamCorruptedException("Malformed child count");
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2019 Sebastian Gössl
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+
+
+package tree;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+
+
+/**
+ * Writer that encodes trees into a stream.
+ * The nodes are written in pre-order, every node as its data followed by
+ * its number of children as a variable length integer. Trees are written
+ * one node at a time and without recursion, so arbitrarily big and deep
+ * trees can be written with memory proportional to their height only.
+ * Several trees can be written one after another and read back with a
+ * {@link TreeReader}.
+ * 
+ * @author Sebastian Gössl
+ * @version 1.0 17.10.2026
+ * @param <T> data type of the trees
+ */
+public class TreeWriter<T> implements Closeable, Flushable {
+    
+    /**
+     * Stream the trees are written to.
+     */
+    private final DataOutputStream out;
+    /**
+     * Codec that writes the data of the nodes.
+     */
+    private final TreeCodec<? super T> codec;
+    
+    
+    
+    /**
+     * Constructs a new writer that writes to the given stream.
+     * 
+     * @param out stream to be written to
+     * @param codec codec that writes the data of the nodes
+     */
+    public TreeWriter(OutputStream out, TreeCodec<? super T> codec) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.codec = codec;
+    }
+    
+    
+    
+    /**
+     * Writes the given tree.
+     * 
+     * @param tree tree to be written
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(Tree<? extends T> tree) throws IOException {
+        for(Tree<? extends T> node : tree) {
+            codec.write(node.getData(), out);
+            writeVarInt(node.getChildCount());
+        }
+    }
+    
+    /**
+     * Writes the given non negative integer in as few bytes as possible,
+     * seven bits per byte starting with the lowest ones.
+     * 
+     * @param value value to be written
+     * @throws IOException if an I/O error occurs
+     */
+    private void writeVarInt(int value) throws IOException {
+        while((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
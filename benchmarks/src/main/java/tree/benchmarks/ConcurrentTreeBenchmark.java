@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2019 Sebastian Gössl
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+
+
+package tree.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tree.ConcurrentTree;
+
+
+
+/**
+ * Benchmarks of concurrent writers on a shared {@link ConcurrentTree}.
+ * Every thread adds and removes children of its own node, so the
+ * throughput should scale with the number of threads ({@code -t}).
+ * 
+ * @author Sebastian Gössl
+ * @version 1.0 17.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentTreeBenchmark {
+    
+    /**
+     * Shared root node.
+     */
+    private final ConcurrentTree<Integer> root = new ConcurrentTree<>(-1);
+    /**
+     * Number of the next writer thread.
+     */
+    private final AtomicInteger writers = new AtomicInteger();
+    
+    
+    
+    /**
+     * Node of a single writer thread.
+     */
+    @State(Scope.Thread)
+    public static class Writer {
+        
+        /**
+         * Node whose children are added and removed by this writer.
+         */
+        private ConcurrentTree<Integer> node;
+        
+        
+        
+        /**
+         * Adds the node of this writer to the shared root node.
+         * 
+         * @param benchmark benchmark with the shared root node
+         */
+        @Setup
+        public void setUp(ConcurrentTreeBenchmark benchmark) {
+            node = benchmark.root.add(benchmark.writers.getAndIncrement());
+        }
+    }
+    
+    
+    
+    /**
+     * Adds a child to the node of the writer and removes it again.
+     * 
+     * @param writer writer of the calling thread
+     * @return removed child
+     */
+    @Benchmark
+    public ConcurrentTree<Integer> addRemove(Writer writer) {
+        writer.node.add(0);
+        return writer.node.remove(0);
+    }
+}
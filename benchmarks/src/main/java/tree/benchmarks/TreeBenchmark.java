@@ -0,0 +1,299 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2019 Sebastian Gössl
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+
+
+package tree.benchmarks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tree.Tree;
+
+
+
+/**
+ * Benchmarks of the construction, growth and traversal of a {@link Tree}.
+ * Every benchmark works on a tree of {@value #NODES} nodes in one of the
+ * shapes of {@link Shape} and the results are reported as the average time
+ * per node.
+ * The growth function constructor recurses once per level, so the forked
+ * JVMs get a large thread stack to grow the deep shape.
+ * 
+ * @author Sebastian Gössl
+ * @version 1.0 17.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
+public class TreeBenchmark {
+    
+    /**
+     * Number of nodes of every benchmarked tree.
+     */
+    public static final int NODES = 4096;
+    
+    
+    
+    /**
+     * Shapes of the benchmarked trees.
+     * The nodes hold distinct integers and the shapes are given by growth
+     * functions on them.
+     */
+    public enum Shape {
+        /**
+         * Root node with all other nodes as its children.
+         */
+        WIDE {
+            @Override
+            List<Integer> children(int node) {
+                final List<Integer> children = new ArrayList<>();
+                if(node == 0) {
+                    for(int i=1; i<NODES; i++) {
+                        children.add(i);
+                    }
+                }
+                return children;
+            }
+        },
+        /**
+         * Chain of nodes with a single child each.
+         */
+        DEEP {
+            @Override
+            List<Integer> children(int node) {
+                return (node + 1 < NODES)
+                        ? Collections.singletonList(node + 1)
+                        : Collections.<Integer>emptyList();
+            }
+        },
+        /**
+         * Complete binary tree.
+         */
+        BALANCED {
+            @Override
+            List<Integer> children(int node) {
+                final List<Integer> children = new ArrayList<>(2);
+                for(int i=2*node+1; i<=2*node+2 && i<NODES; i++) {
+                    children.add(i);
+                }
+                return children;
+            }
+        };
+        
+        
+        
+        /**
+         * Returns the data of the children of the given node.
+         * 
+         * @param node data of the node
+         * @return data of the children of the node
+         */
+        abstract List<Integer> children(int node);
+        
+        /**
+         * Returns the growth function of this shape.
+         * 
+         * @return growth function of this shape
+         */
+        Function<Integer, Iterable<Integer>> grow() {
+            return this::children;
+        }
+    }
+    
+    
+    
+    /**
+     * Shape of the benchmarked trees.
+     */
+    @Param
+    public Shape shape;
+    
+    /**
+     * Tree used by the traversal benchmarks.
+     */
+    private Tree<Integer> tree;
+    
+    /**
+     * Nodes of {@link #tree} in pre-order.
+     */
+    private List<Tree<Integer>> nodes;
+    
+    
+    
+    /**
+     * Grows the tree used by the traversal benchmarks.
+     */
+    @Setup(Level.Trial)
+    public void setUpTree() {
+        tree = new Tree<>(0, shape.grow());
+        nodes = new ArrayList<>(NODES);
+        tree.forEach(nodes::add);
+    }
+    
+    
+    
+    /**
+     * Builds a tree node by node with {@link Tree#add(Object)}.
+     * 
+     * @return root node of the built tree
+     */
+    @Benchmark
+    @OperationsPerInvocation(NODES)
+    public Tree<Integer> add() {
+        final Tree<Integer> root = new Tree<>(0);
+        final ArrayDeque<Tree<Integer>> pending = new ArrayDeque<>();
+        pending.add(root);
+        while(!pending.isEmpty()) {
+            final Tree<Integer> node = pending.poll();
+            for(int child : shape.children(node.getData())) {
+                pending.add(node.add(child));
+            }
+        }
+        return root;
+    }
+    
+    /**
+     * Grows a tree with the growth function constructor.
+     * 
+     * @return root node of the grown tree
+     */
+    @Benchmark
+    @OperationsPerInvocation(NODES)
+    public Tree<Integer> grow() {
+        return new Tree<>(0, shape.grow());
+    }
+    
+    /**
+     * Traverses the tree with its iterator.
+     * 
+     * @param blackhole sink of the visited data
+     */
+    @Benchmark
+    @OperationsPerInvocation(NODES)
+    public void iterator(Blackhole blackhole) {
+        for(Tree<Integer> node : tree) {
+            blackhole.consume(node.getData());
+        }
+    }
+    
+    /**
+     * Traverses the tree in pre-order.
+     * 
+     * @param blackhole sink of the visited data
+     */
+    @Benchmark
+    @OperationsPerInvocation(NODES)
+    public void preOrder(Blackhole blackhole) {
+        tree.preOrder((node) -> blackhole.consume(node.getData()));
+    }
+    
+    /**
+     * Traverses the tree in post-order.
+     * 
+     * @param blackhole sink of the visited data
+     */
+    @Benchmark
+    @OperationsPerInvocation(NODES)
+    public void postOrder(Blackhole blackhole) {
+        tree.postOrder((node) -> blackhole.consume(node.getData()));
+    }
+    
+    /**
+     * Looks up the index of every node except the root node in its parent.
+     * 
+     * @param blackhole sink of the indices
+     */
+    @Benchmark
+    @OperationsPerInvocation(NODES - 1)
+    public void getIndex(Blackhole blackhole) {
+        for(int i=1; i<NODES; i++) {
+            final Tree<Integer> node = nodes.get(i);
+            blackhole.consume(node.getParent().getIndex(node));
+        }
+    }
+    
+    /**
+     * Removes every node except the root node by its data, starting with
+     * the last node in pre-order.
+     * 
+     * @param removal fresh tree to be taken apart
+     */
+    @Benchmark
+    @OperationsPerInvocation(NODES - 1)
+    public void remove(Removal removal) {
+        for(int i=NODES-1; i>0; i--) {
+            final Tree<Integer> node = removal.nodes.get(i);
+            node.getParent().remove(node.getData());
+        }
+    }
+    
+    
+    
+    /**
+     * Fresh tree for every invocation of {@link #remove(Removal)}, which
+     * takes its tree apart.
+     */
+    @State(Scope.Thread)
+    public static class Removal {
+        
+        /**
+         * Nodes of the fresh tree in pre-order.
+         */
+        private List<Tree<Integer>> nodes;
+        
+        
+        
+        /**
+         * Grows a fresh tree in the shape of the benchmark.
+         * 
+         * @param benchmark benchmark whose shape is used
+         */
+        @Setup(Level.Invocation)
+        public void setUp(TreeBenchmark benchmark) {
+            nodes = new ArrayList<>(NODES);
+            new Tree<>(0, benchmark.shape.grow()).forEach(nodes::add);
+        }
+    }
+}